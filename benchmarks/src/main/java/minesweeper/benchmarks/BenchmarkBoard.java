@@ -0,0 +1,29 @@
+package minesweeper.benchmarks;
+
+import static minesweeper.util.MinesweeperConstants.*;
+
+/**
+ * Board sizes used as JMH <code>@Param</code>s
+ *
+ * @author Namdrib
+ *
+ */
+public enum BenchmarkBoard {
+  BEGINNER(BEGINNER_X, BEGINNER_Y, BEGINNER_MINES),
+  INTERMEDIATE(INTERMEDIATE_X, INTERMEDIATE_Y, INTERMEDIATE_MINES),
+  EXPERT(EXPERT_X, EXPERT_Y, EXPERT_MINES),
+  // The most mines allowed on the largest board
+  DENSE(MAX_DIM_X, MAX_DIM_Y, (MAX_DIM_X - 1) * (MAX_DIM_Y - 1)),
+  // The fewest mines allowed on the largest board, so most Cells are zeros
+  ZERO_HEAVY(MAX_DIM_X, MAX_DIM_Y, MIN_MINES);
+
+  public final int width;
+  public final int height;
+  public final int numMines;
+
+  BenchmarkBoard(int width, int height, int numMines) {
+    this.width = width;
+    this.height = height;
+    this.numMines = numMines;
+  }
+}
@@ -0,0 +1,24 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result comes with the bytes allocated per
+ * operation (<code>gc.alloc.rate.norm</code>) as well as ops/s. Takes the usual JMH command line,
+ * e.g. <code>java -jar benchmarks/target/benchmarks.jar BoardBenchmark -p board=EXPERT</code>
+ *
+ * @author Namdrib
+ *
+ */
+public class BenchmarkMain {
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class).build()).run();
+  }
+}
@@ -0,0 +1,63 @@
+package minesweeper.game;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import minesweeper.benchmarks.BenchmarkBoard;
+import minesweeper.game.Game.GameDifficulty;
+
+/**
+ * Board creation and the whole-board queries made after every action
+ *
+ * @author Namdrib
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+  @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "DENSE"})
+  BenchmarkBoard board;
+
+  GameImpl game;
+
+  @Setup
+  public void setUp() {
+    game = new GameImpl(GameDifficulty.CUSTOM, board.width, board.height, board.numMines);
+  }
+
+  @Benchmark
+  public Game createBoard() {
+    game.createBoard(board.width, board.height, board.numMines);
+    return game;
+  }
+
+  @Benchmark
+  public Game updateCellNumbers() {
+    game.updateCellNumbers();
+    return game;
+  }
+
+  @Benchmark
+  public int setFinished() {
+    game.setFinished();
+    return game.getFinished();
+  }
+
+  @Benchmark
+  public int getRemainingMines() {
+    return game.getRemainingMines();
+  }
+}
@@ -0,0 +1,64 @@
+package minesweeper.game;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import minesweeper.cell.Cell;
+import minesweeper.game.Game.GameDifficulty;
+
+/**
+ * Chording an open Cell whose neighbours are already open, so the board does not change between
+ * calls. Compares <code>Game.chord()</code> with counting flags through
+ * <code>getNeighboursOf()</code>, the way chording used to be done.
+ *
+ * @author Namdrib
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChordBenchmark {
+  GameImpl game;
+  Cell cell;
+
+  @Setup
+  public void setUp() {
+    game = new GameImpl(new BoardId(GameDifficulty.EXPERT, 30, 16, 99, 1L));
+    game.start();
+    for (int i = 0; i < 30 * 16; i++) {
+      if (game.getCell(i).getNumber() == 0) {
+        cell = game.getCell(i);
+        cell.open(true);
+        break;
+      }
+    }
+  }
+
+  @Benchmark
+  public Cell chord() {
+    game.chord(cell);
+    return cell;
+  }
+
+  @Benchmark
+  public int neighboursOf() {
+    int flags = 0;
+    for (Cell c : game.getNeighboursOf(cell)) {
+      if (c.getFlagState() == 1) {
+        flags++;
+      }
+    }
+    return flags;
+  }
+}
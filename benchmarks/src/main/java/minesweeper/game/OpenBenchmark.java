@@ -0,0 +1,100 @@
+package minesweeper.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import minesweeper.benchmarks.BenchmarkBoard;
+import minesweeper.game.Game.GameDifficulty;
+
+/**
+ * Opening a zero Cell, which cascades through its whole region. Opening changes the board, so
+ * each call opens a fresh copy from a batch built before the iteration, and the score is the time
+ * taken by a whole batch of <code>BATCH</code> opens. No setup runs between calls.
+ *
+ * @author Namdrib
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, batchSize = OpenBenchmark.BATCH)
+@Measurement(iterations = 5, batchSize = OpenBenchmark.BATCH)
+@Fork(1)
+@State(Scope.Thread)
+public class OpenBenchmark {
+  static final int BATCH = 500;
+
+  @Param({"EXPERT", "ZERO_HEAVY"})
+  BenchmarkBoard board;
+
+  GameImpl game;
+  List<List<Boolean>> mines;
+  int firstZero;
+  // One fresh, started board per call in the batch, and the next one to open
+  GameImpl[] games;
+  int next;
+
+  @Setup(Level.Trial)
+  public void setUpLayout() {
+    BoardId id = new BoardId(GameDifficulty.CUSTOM, board.width, board.height, board.numMines, 1L);
+    game = new GameImpl(id);
+    mines = layoutOf(game);
+
+    // The zero Cell with the largest region gives the longest cascade
+    int best = 0;
+    for (int i = 0; i < board.width * board.height; i++) {
+      if (game.getCell(i).getNumber() == 0 && !game.getCell(i).isOpen()) {
+        game.getCell(i).open(true);
+        int[] opened = new int[1];
+        game.getBoardView().forEachOpen(k -> opened[0]++);
+        if (opened[0] > best) {
+          best = opened[0];
+          firstZero = i;
+        }
+        game.createBoard(mines);
+      }
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void buildBatch() {
+    games = new GameImpl[BATCH];
+    for (int i = 0; i < BATCH; i++) {
+      games[i] = new GameImpl();
+      games[i].createBoard(mines);
+      games[i].start();
+    }
+    next = 0;
+  }
+
+  @Benchmark
+  public int open() {
+    GameImpl g = games[next++];
+    g.getCell(firstZero).open(true);
+    return g.getFinished();
+  }
+
+  static List<List<Boolean>> layoutOf(Game game) {
+    BoardView view = game.getBoardView();
+    List<List<Boolean>> mines = new ArrayList<>();
+    for (int y = 0; y < view.height(); y++) {
+      List<Boolean> row = new ArrayList<>();
+      for (int x = 0; x < view.width(); x++) {
+        row.add(view.isMine(y * view.width() + x));
+      }
+      mines.add(row);
+    }
+    return mines;
+  }
+}
@@ -0,0 +1,70 @@
+package minesweeper.gameio;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import minesweeper.benchmarks.BenchmarkBoard;
+import minesweeper.game.Game;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.GameImpl;
+
+/**
+ * Writing a board's mines out and reading them back in
+ *
+ * @author Namdrib
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameReaderWriterBenchmark {
+  @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "DENSE"})
+  BenchmarkBoard board;
+
+  GameIO gio;
+  Game game;
+  Game target;
+  String text;
+
+  @Setup
+  public void setUp() throws IOException {
+    gio = new GameReaderWriter();
+    game = new GameImpl(GameDifficulty.CUSTOM, board.width, board.height, board.numMines);
+    target = new GameImpl();
+    text = writeMines();
+  }
+
+  @Benchmark
+  public String writeMines() throws IOException {
+    StringWriter w = new StringWriter();
+    gio.writeMines(w, game);
+    return w.toString();
+  }
+
+  @Benchmark
+  public Game readMines() throws IOException, GameFormatException {
+    gio.readMines(new StringReader(text), target);
+    return target;
+  }
+
+  @Benchmark
+  public Game roundTrip() throws IOException, GameFormatException {
+    gio.readMines(new StringReader(writeMines()), target);
+    return target;
+  }
+}
@@ -1,7 +1,6 @@
 package minesweeper.cell;
 
 import java.awt.Point;
-import minesweeper.celllistener.CellListener;
 import minesweeper.game.Game;
 
 /**
@@ -67,8 +66,11 @@ public interface Cell {
   public boolean isMine();
 
   /**
+   * Move this Cell. Optional: Cells whose position is fixed by the board they are part of (e.g.
+   * those of PackedGameImpl) do not support it
    * 
    * @param point input point to set this.point
+   * @throws UnsupportedOperationException if this Cell can not be moved
    */
   public void setPoint(Point point);
 
@@ -78,6 +80,12 @@ public interface Cell {
    */
   public Point getPoint();
 
+  /**
+   * 
+   * @return the Cell's index within its Game, <code>y * width + x</code>
+   */
+  public int getIndex();
+
   /**
    * 
    * @return the Game in which the Cell resides
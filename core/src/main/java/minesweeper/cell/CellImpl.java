@@ -0,0 +1,348 @@
+package minesweeper.cell;
+
+import java.awt.Point;
+import java.util.HashSet;
+import java.util.Set;
+import minesweeper.game.BoardView;
+import minesweeper.game.Game;
+import minesweeper.game.NeighbourTable;
+
+/**
+ * 
+ * @author Namdrib
+ *
+ */
+public class CellImpl implements Cell {
+  private static final CellState[] NUM_TO_STATE = {CellState.OPEN0, CellState.OPEN1,
+      CellState.OPEN2, CellState.OPEN3, CellState.OPEN4, CellState.OPEN5, CellState.OPEN6,
+      CellState.OPEN7, CellState.OPEN8};
+
+  // Reused by cascade() between calls on the same thread
+  private static final int[] EMPTY_QUEUE = new int[0];
+  private static final ThreadLocal<int[]> cascadeQueue =
+      ThreadLocal.withInitial(() -> EMPTY_QUEUE);
+
+  /**
+   * cellState represents the external state of the Cell (what is displayed) Other information
+   * (flagState, number, etc.) represent the internal state
+   */
+  CellState cellState;
+  int flagState;
+  int number;
+  boolean isOpen;
+  boolean marking;
+
+  // Not sure if I need this:
+  // Keeping track of the game and its position within the game
+  Game game;
+  Point point;
+  int index;
+  Set<CellListener> listeners;
+
+  // Set default state
+  public CellImpl() {
+    cellState = CellState.FLAG0;
+    flagState = 0;
+    number = 0;
+    isOpen = false;
+    marking = true;
+    listeners = new HashSet<>();
+  }
+
+  /**
+   * 
+   * @param game a reference to the Game in which the Cell resides
+   * @param point representing the Cell's location within the Game's grid of Cells
+   * @param mine whether this Cell has a mine
+   */
+  public CellImpl(Game game, Point point, boolean mine) {
+    this(game, point, (int) (point.getY() * game.getDimensions().getX() + point.getX()), mine);
+  }
+
+  /**
+   * 
+   * @param game a reference to the Game in which the Cell resides
+   * @param point representing the Cell's location within the Game's grid of Cells
+   * @param index the Cell's index within the Game, <code>y * width + x</code>
+   * @param mine whether this Cell has a mine
+   */
+  public CellImpl(Game game, Point point, int index, boolean mine) {
+    this();
+    this.game = game;
+    this.point = point;
+    this.index = index;
+    if (mine) {
+      number = -1;
+    }
+  }
+
+  @Override
+  public void addListener(CellListener cl) {
+    listeners.add(cl);
+  }
+
+  @Override
+  public void deleteListener(CellListener cl) {
+    listeners.remove(cl);
+  }
+
+  /**
+   * Alerts all listeners by looping through and calling <code>cellChanged()</code>
+   */
+  public void alertListeners() {
+    listeners.stream().forEach(e -> e.cellChanged());
+  }
+
+  /**
+   * Numbers are hidden until a Cell is opened, so listeners are not alerted
+   */
+  @Override
+  public void setNumber(int number) {
+    this.number = number;
+  }
+
+  @Override
+  public int getNumber() {
+    return number;
+  }
+
+  @Override
+  public boolean isMine() {
+    return number == -1;
+  }
+
+  @Override
+  public void setPoint(Point point) {
+    this.point = point;
+    if (game != null) {
+      index = (int) (point.getY() * game.getDimensions().getX() + point.getX());
+    }
+  }
+
+  @Override
+  public Point getPoint() {
+    return new Point(point);
+  }
+
+  @Override
+  public int getIndex() {
+    return index;
+  }
+
+  @Override
+  public Game getGame() {
+    return game;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return isOpen;
+  }
+
+  @Override
+  public int getFlagState() {
+    return flagState;
+  }
+
+  @Override
+  public CellState getCellState() {
+    return cellState;
+  }
+
+  /**
+   * Change the Cell's state, letting the Game know so it can keep its counts
+   */
+  private void setCellState(CellState cellState) {
+    CellState from = this.cellState;
+    this.cellState = cellState;
+    if (game != null) {
+      game.cellStateChanged(this, from, cellState);
+    }
+  }
+
+  @Override
+  public void setMarking(boolean marking) {
+    this.marking = marking;
+  }
+
+  @Override
+  public void toggleFlag() {
+    game.beginChanges();
+    try {
+      cycleFlag();
+    } finally {
+      game.endChanges();
+    }
+  }
+
+  private void cycleFlag() {
+    if (!isOpen) {
+      switch (flagState) {
+        case 0:
+          flagState = 1;
+          setCellState(CellState.FLAG1);
+          game.flagChanged();
+          break;
+        case 1:
+          if (marking) {
+            flagState = 2;
+            setCellState(CellState.FLAG2);
+          } else {
+            flagState = 0;
+            setCellState(CellState.FLAG0);
+          }
+          game.flagChanged();
+          break;
+        case 2:
+          flagState = 0;
+          setCellState(CellState.FLAG0);
+          break;
+      }
+      alertListeners();
+    }
+  }
+
+  @Override
+  public void setFlag() {
+    game.beginChanges();
+    try {
+      flagState = 1;
+      setCellState(CellState.FLAG1);
+      alertListeners();
+      game.flagChanged();
+    } finally {
+      game.endChanges();
+    }
+  }
+
+  @Override
+  public void open(boolean direct) {
+    game.beginChanges();
+    try {
+      openCell(direct);
+    } finally {
+      game.endChanges();
+    }
+  }
+
+  private void openCell(boolean direct) {
+    // Do nothing if already open
+    if (isOpen) {
+      return;
+    }
+
+    // Cannot directly open if the Cell is flagged or marked
+    // however, can directly open (e.g. via middle click or end-of-game reveal)
+    if (flagState == 1) {
+      if (!direct && !isMine()) {
+        flagState = 0;
+        setCellState(CellState.MINE3);
+        isOpen = true;
+        alertListeners();
+      }
+      return;
+    }
+    // The first click is never a mine, and may place the mines
+    if (!getGame().isStarted()) {
+      getGame().start(this);
+    }
+
+    // A mine has been opened.
+    if (isMine()) {
+      isOpen = true;
+      setCellState((direct) ? CellState.MINE2 : CellState.MINE1);
+
+      // Open all other mines, and show any incorrect flags
+      BoardView view = game.getBoardView();
+      int size = view.width() * view.height();
+      for (int i = 0; i < size; i++) {
+        CellState s = view.state(i);
+        boolean flagged = s == CellState.FLAG1 || s == CellState.FLAG2;
+        if (flagged || (s == CellState.FLAG0 && view.isMine(i))) {
+          game.getCell(i).open(false);
+        }
+      }
+      alertListeners();
+      return;
+    }
+
+    reveal();
+    if (number == 0) {
+      cascade();
+    } else {
+      alertListeners();
+    }
+  }
+
+  /**
+   * Show this (non-mine) Cell's number, without alerting listeners
+   */
+  private void reveal() {
+    isOpen = true;
+    setCellState(NUM_TO_STATE[number]);
+  }
+
+  /**
+   * Open the zero-region around this Cell breadth-first, using a work queue of Cell indices rather
+   * than recursion. Flagged Cells are left alone, marked Cells are opened. The region's Cells do
+   * not alert their own listeners; the Game announces the whole region in one ChangeSet.
+   */
+  private void cascade() {
+    NeighbourTable nt = game.getNeighbourTable();
+    int size = nt.getWidth() * nt.getHeight();
+
+    // Borrow the queue, so that a listener which opens another region gets a queue of its own
+    int[] queue = cascadeQueue.get();
+    cascadeQueue.set(EMPTY_QUEUE);
+    if (queue.length < size) {
+      queue = new int[size];
+    }
+
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = index;
+
+    // Every Cell is enqueued at most once, as it is opened before being enqueued
+    while (head < tail) {
+      int current = queue[head++];
+      if (game.getCell(current).getNumber() != 0) {
+        continue;
+      }
+      for (int k = nt.start(current); k < nt.end(current); k++) {
+        CellImpl c = (CellImpl) game.getCell(nt.get(k));
+        if (!c.isOpen && c.flagState != 1) {
+          c.reveal();
+          queue[tail++] = c.index;
+        }
+      }
+    }
+
+    cascadeQueue.set(queue);
+  }
+
+  @Override
+  public String toString() {
+    if (isOpen) {
+      // TODO : tell whether it's the clicked mine or incorrectly flagged
+      // if it was incorrectly flagged, have "x"
+      // if it was a mine clicked on, have "*"
+      if (isMine()) {
+        return ".";
+      } else {
+        return String.valueOf(number);
+      }
+    } else {
+      switch (flagState) {
+        case 0:
+          return " ";
+        case 1:
+          return "F";
+        case 2:
+          return "?";
+        default:
+          return "*";
+      }
+    }
+  }
+
+}
@@ -1,4 +1,4 @@
-package minesweeper.celllistener;
+package minesweeper.cell;
 
 /**
  * A listener for changes to a place. Informed with the <code>cellChanged()</code> function. This
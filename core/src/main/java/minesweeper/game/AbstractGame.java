@@ -0,0 +1,602 @@
+package minesweeper.game;
+
+import static minesweeper.util.MinesweeperConstants.*;
+import java.awt.Point;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+import minesweeper.cell.Cell;
+import minesweeper.game.GameImpl.GameChangeType;
+import minesweeper.util.Util;
+
+/**
+ * Everything a Game does that does not depend on how its board is stored: listeners and change
+ * sets, the clock, the first click, and laying out and numbering mines. Subclasses store the
+ * board, and give access to it by Cell index (<code>y * width + x</code>).
+ * <p>
+ * Threading: the board (Cells, counts, change sets) belongs to whichever thread handles input, and
+ * must only be touched from there. The clock (<code>tick()</code>, <code>getElapsedMillis()</code>,
+ * <code>getSecondsPassed()</code>) and <code>getFinished()</code> are safe to use from any
+ * thread. Listeners are always called on the listener executor, never directly from the ticking
+ * thread.
+ *
+ * @author Namdrib
+ *
+ */
+abstract class AbstractGame implements Game {
+  Set<GameListener> listeners;
+  Executor listenerExecutor;
+  GameDifficulty difficulty;
+  FirstClickMode firstClickMode;
+  int numMines;
+  int width;
+  int height;
+  NeighbourTable neighbourTable;
+  BoardView view;
+  StateCounts counts;
+  // Zobrist hash of the CellStates, updated on every change
+  long stateHash;
+  // Cells changed by the current user action, and how deeply nested the action is
+  ChangeSet changes;
+  int changeDepth;
+  MineGenerator generator;
+  BoardId boardId;
+  // Seed for the mines still to be placed on the first click, if deferred
+  long pendingSeed;
+  boolean pending;
+  // Finds NO_GUESS boards on the first click, and whether it found one for this board
+  SeedSearch seedSearch;
+  boolean guessFree;
+  boolean marking;
+  // The clock may be read and ticked from any thread. Instants are System.nanoTime() values
+  LongSupplier nanoClock;
+  volatile long startNanos;
+  volatile long finishNanos;
+  // The last whole second announced by tick()
+  final AtomicLong tickedSeconds;
+  volatile boolean started;
+  final AtomicInteger finished;
+
+  /**
+   * Set up everything but the board, which the subclass then creates or copies
+   */
+  AbstractGame(GameDifficulty difficulty, FirstClickMode firstClickMode) {
+    listeners = new CopyOnWriteArraySet<>();
+    listenerExecutor = Runnable::run;
+    counts = new StateCounts();
+    changes = new ChangeSet();
+    generator = new MineGenerator();
+    this.difficulty = difficulty;
+    this.firstClickMode = firstClickMode;
+    marking = true;
+    nanoClock = System::nanoTime;
+    tickedSeconds = new AtomicLong();
+    started = false;
+    finished = new AtomicInteger();
+  }
+
+  // --- THE BOARD, BY INDEX ---
+
+  /**
+   * Start a fresh, empty board of <code>width * height</code> closed Cells. Subclasses allocate
+   * their storage after calling this.
+   */
+  void initBoard(int width, int height) {
+    this.width = width;
+    this.height = height;
+    neighbourTable = NeighbourTable.of(width, height);
+    counts.reset();
+    stateHash = Zobrist.closed(width, height);
+    changes = new ChangeSet();
+  }
+
+  /**
+   * @return the number of the Cell at <code>index</code> (-1 for a mine)
+   * @see Cell#getNumber()
+   */
+  public abstract int getNumber(int index);
+
+  /**
+   * Set the number of the Cell at <code>index</code> (-1 for a mine), without telling anyone
+   */
+  abstract void setNumber(int index, int number);
+
+  public abstract boolean isMine(int index);
+
+  /**
+   * @see Cell#isOpen()
+   */
+  public abstract boolean isOpen(int index);
+
+  /**
+   * @see Cell#getFlagState()
+   */
+  public abstract int getFlagState(int index);
+
+  /**
+   * Open the Cell at <code>index</code>
+   *
+   * @param direct whether this is opened by a direct click
+   * @see Cell#open(boolean)
+   */
+  public abstract void open(int index, boolean direct);
+
+  /**
+   * @see Cell#toString()
+   */
+  abstract String cellToString(int index);
+
+  /**
+   * @return the index of the Cell at (x, y)
+   */
+  public int indexOf(int x, int y) {
+    return y * width + x;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  // --- CREATING BOARDS ---
+
+  @Override
+  public void createBoard(int width, int height, int numMines) {
+    createBoard(width, height, numMines, generator.nextSeed());
+  }
+
+  // Unless the first click mode is CLASSIC, the mines wait for the first click
+  @Override
+  public void createBoard(int width, int height, int numMines, long seed) {
+    // Clamp the dimensions and mine numbers
+    initBoard(Util.clamp(width, MIN_DIM_X, MAX_DIM_X), Util.clamp(height, MIN_DIM_Y, MAX_DIM_Y));
+    int maxMines = (this.width - 1) * (this.height - 1);
+    this.numMines = Util.clamp(numMines, MIN_MINES, maxMines);
+    pending = firstClickMode != FirstClickMode.CLASSIC;
+    pendingSeed = seed;
+    guessFree = false;
+
+    if (!pending) {
+      for (int mine : generator.place(this.width * this.height, this.numMines,
+          new Random(seed))) {
+        setNumber(mine, -1);
+      }
+      updateCellNumbers();
+    }
+    boardId = BoardId.of(difficulty, this.width, this.height, this.numMines, seed);
+  }
+
+  /**
+   * @param generator used to place mines on every board created from now on
+   */
+  public void setMineGenerator(MineGenerator generator) {
+    this.generator = generator;
+  }
+
+  /**
+   * Without a SeedSearch, NO_GUESS boards are placed as OPENING boards are
+   *
+   * @param seedSearch used to find the board on the first click of a NO_GUESS game
+   */
+  public void setSeedSearch(SeedSearch seedSearch) {
+    this.seedSearch = seedSearch;
+  }
+
+  /**
+   * The mine count is however many mines <code>mines</code> holds
+   */
+  @Override
+  public void createBoard(List<List<Boolean>> mines) {
+    initBoard(Util.clamp(mines.get(0).size(), MIN_DIM_X, MAX_DIM_X),
+        Util.clamp(mines.size(), MIN_DIM_Y, MAX_DIM_Y));
+
+    int minesPlaced = 0;
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        if (mines.get(y).get(x)) {
+          setNumber(indexOf(x, y), -1);
+          minesPlaced++;
+        }
+      }
+    }
+    numMines = minesPlaced;
+
+    updateCellNumbers();
+    pending = false;
+    guessFree = false;
+    boardId = null;
+  }
+
+  /**
+   * Update every cell's number according to their neighbouring mines
+   *
+   * e.g. if a given cell has two mines around it, its number is two
+   */
+  void updateCellNumbers() {
+    for (int i = 0; i < width * height; i++) {
+      if (!isMine(i)) {
+        setNumber(i, countNeighbouringMines(i));
+      }
+    }
+  }
+
+  int countNeighbouringMines(int index) {
+    int count = 0;
+    for (int k = neighbourTable.start(index); k < neighbourTable.end(index); k++) {
+      if (isMine(neighbourTable.get(k))) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Add <code>delta</code> to the number of each non-mine neighbour of <code>index</code>
+   */
+  void adjustNeighbourNumbers(int index, int delta) {
+    for (int k = neighbourTable.start(index); k < neighbourTable.end(index); k++) {
+      int i = neighbourTable.get(k);
+      if (!isMine(i)) {
+        setNumber(i, getNumber(i) + delta);
+      }
+    }
+  }
+
+  // --- LISTENERS AND CHANGES ---
+
+  @Override
+  public void addListener(GameListener gl) {
+    listeners.add(gl);
+  }
+
+  @Override
+  public void removeListener(GameListener gl) {
+    listeners.remove(gl);
+  }
+
+  @Override
+  public void setListenerExecutor(Executor executor) {
+    listenerExecutor = executor;
+  }
+
+  /**
+   * Alerts all listeners by looping through and calling the method for <code>type</code>, on the
+   * listener executor
+   */
+  public void alertListeners(GameChangeType type) {
+    listenerExecutor.execute(() -> {
+      switch (type) {
+        case LOSE:
+          listeners.stream().forEach(e -> e.gameLose());
+          break;
+        case WIN:
+          listeners.stream().forEach(e -> e.gameWin());
+          break;
+        case TICK:
+          listeners.stream().forEach(e -> e.gameTick());
+          break;
+        case FLAG:
+          listeners.stream().forEach(e -> e.flagChanged());
+          break;
+        default:
+          return;
+      }
+    });
+  }
+
+  /**
+   * Alerts all listeners of the Cells changed by one user action, on the listener executor
+   */
+  void alertCellsChanged(ChangeSet done) {
+    listenerExecutor.execute(() -> listeners.stream().forEach(e -> e.cellsChanged(done)));
+  }
+
+  @Override
+  public void flagChanged() {
+    alertListeners(GameChangeType.FLAG);
+  }
+
+  @Override
+  public void beginChanges() {
+    changeDepth++;
+  }
+
+  @Override
+  public void endChanges() {
+    if (--changeDepth > 0 || changes.isEmpty()) {
+      return;
+    }
+
+    // Listeners may start actions of their own, which need a fresh ChangeSet
+    ChangeSet done = changes;
+    changes = new ChangeSet();
+    alertCellsChanged(done);
+    setFinished();
+  }
+
+  @Override
+  public long getStateHash() {
+    return stateHash;
+  }
+
+  // --- PLAYING ---
+
+  /**
+   * Chord the Cell at <code>index</code>
+   *
+   * @see Game#chord(Cell)
+   */
+  public void chord(int index) {
+    if (!isOpen(index)) {
+      return;
+    }
+    int neighbouringFlags = 0;
+    for (int k = neighbourTable.start(index); k < neighbourTable.end(index); k++) {
+      if (getFlagState(neighbourTable.get(k)) == 1) {
+        neighbouringFlags++;
+      }
+    }
+    if (neighbouringFlags != getNumber(index)) {
+      return;
+    }
+
+    beginChanges();
+    try {
+      for (int k = neighbourTable.start(index); k < neighbourTable.end(index); k++) {
+        open(neighbourTable.get(k), false);
+      }
+    } finally {
+      endChanges();
+    }
+  }
+
+  @Override
+  public void chord(Cell cell) {
+    chord(cell.getIndex());
+  }
+
+  @Override
+  public boolean isStarted() {
+    return started;
+  }
+
+  @Override
+  public void start() {
+    // Written before started, so anyone who sees the game started also sees when
+    startNanos = nanoClock.getAsLong();
+    started = true;
+  }
+
+  @Override
+  public void start(Cell first) {
+    start(first.getIndex());
+  }
+
+  /**
+   * Start the game with <code>index</code> as the first Cell opened
+   *
+   * @see Game#start(Cell)
+   */
+  public void start(int index) {
+    if (pending) {
+      placeMinesAround(index);
+    } else if (isMine(index)) {
+      relocateMine(index);
+    }
+    start();
+  }
+
+  /**
+   * Place the pending mines anywhere but <code>index</code> (and its neighbours, for OPENING and
+   * NO_GUESS), numbering the neighbours of each mine as it goes. For NO_GUESS, the seed is first
+   * swapped for one whose OPENING board needs no guessing, if the SeedSearch finds one.
+   */
+  void placeMinesAround(int index) {
+    if (firstClickMode == FirstClickMode.NO_GUESS && seedSearch != null) {
+      OptionalLong found = seedSearch.find(width, height, numMines, pendingSeed, index);
+      guessFree = found.isPresent();
+      pendingSeed = found.orElse(pendingSeed);
+    }
+    int[] excluded = {index};
+    if (firstClickMode != FirstClickMode.SAFE) {
+      int num = neighbourTable.count(index);
+      // Keep the neighbours free only if the mines still fit
+      if (width * height - num - 1 >= numMines) {
+        excluded = new int[num + 1];
+        excluded[0] = index;
+        for (int k = 0; k < num; k++) {
+          excluded[k + 1] = neighbourTable.get(neighbourTable.start(index) + k);
+        }
+      }
+    }
+
+    Random r = new Random(pendingSeed);
+    for (int mine : generator.place(width * height, numMines, r, excluded)) {
+      setNumber(mine, -1);
+      adjustNeighbourNumbers(mine, 1);
+    }
+    pending = false;
+  }
+
+  @Override
+  public void relocateMine(Cell cell) {
+    relocateMine(cell.getIndex());
+  }
+
+  /**
+   * Relocate the mine at <code>index</code>
+   *
+   * @see Game#relocateMine(Cell)
+   */
+  public void relocateMine(int index) {
+    for (int i = 0; i < width * height; i++) {
+      if (!isMine(i)) {
+        // Make i a mine, update its neighbours counts
+        setNumber(i, -1);
+        adjustNeighbourNumbers(i, 1);
+        break;
+      }
+    }
+
+    setNumber(index, countNeighbouringMines(index));
+    adjustNeighbourNumbers(index, -1);
+  }
+
+  // --- THE CLOCK AND THE RESULT ---
+
+  @Override
+  public void tick() {
+    if (started && finished.get() == 0) {
+      // Announce each second once, however many threads tick
+      long seconds = getElapsedMillis() / 1000;
+      if (tickedSeconds.getAndSet(seconds) != seconds) {
+        alertListeners(GameChangeType.TICK);
+      }
+    }
+  }
+
+  @Override
+  public long getElapsedMillis() {
+    if (!started) {
+      return 0;
+    }
+    long end = (finished.get() > 0) ? finishNanos : nanoClock.getAsLong();
+    return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+  }
+
+  @Override
+  public int getSecondsPassed() {
+    return (int) Math.min(getElapsedMillis() / 1000, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void setFinished() {
+    // Already finished, no chance of changing
+    if (finished.get() > 0) {
+      return;
+    }
+
+    // A mine has been opened (lose game)
+    if (counts.getExploded() > 0) {
+      finishNanos = nanoClock.getAsLong();
+      if (finished.compareAndSet(0, 2)) {
+        alertListeners(GameChangeType.LOSE);
+      }
+      return;
+    }
+
+    // The board has been revealed (win game)
+    if (counts.getOpenedSafe() == width * height - numMines) {
+      finishNanos = nanoClock.getAsLong();
+      if (finished.compareAndSet(0, 1)) {
+        alertListeners(GameChangeType.WIN);
+      }
+      return;
+    }
+
+    // Nothing so far, not finished
+  }
+
+  @Override
+  public int getFinished() {
+    return finished.get();
+  }
+
+  // --- EVERYTHING ELSE ---
+
+  @Override
+  public Set<Cell> getNeighboursOf(Cell cell) {
+    Set<Cell> neighbours = new HashSet<>();
+    int index = cell.getIndex();
+    for (int k = neighbourTable.start(index); k < neighbourTable.end(index); k++) {
+      neighbours.add(getCell(neighbourTable.get(k)));
+    }
+    return neighbours;
+  }
+
+  @Override
+  public void forEachNeighbour(int index, IntConsumer action) {
+    neighbourTable.forEach(index, action);
+  }
+
+  @Override
+  public NeighbourTable getNeighbourTable() {
+    return neighbourTable;
+  }
+
+  @Override
+  public Point getDimensions() {
+    return new Point(width, height);
+  }
+
+  @Override
+  public int getNumMines() {
+    return numMines;
+  }
+
+  @Override
+  public int getRemainingMines() {
+    return numMines - counts.getFlags();
+  }
+
+  @Override
+  public BoardView getBoardView() {
+    return view;
+  }
+
+  @Override
+  public void setMarking(boolean marking) {
+    this.marking = marking;
+  }
+
+  @Override
+  public BoardId getBoardId() {
+    return boardId;
+  }
+
+  @Override
+  public GameDifficulty getDifficulty() {
+    return difficulty;
+  }
+
+  @Override
+  public FirstClickMode getFirstClickMode() {
+    return firstClickMode;
+  }
+
+  @Override
+  public boolean isGuessFree() {
+    return guessFree;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(getRemainingMines() + ", " + getSecondsPassed() + System.lineSeparator());
+
+    // Surround the cells with an outline to more easily see the bounds
+    String horizontalBorder = '+' + new String(new char[width + 2]).replace('\0', '-') + '+';
+    sb.append(horizontalBorder + System.lineSeparator());
+    for (int y = 0; y < height; y++) {
+      sb.append("| ");
+      for (int x = 0; x < width; x++) {
+        sb.append(cellToString(indexOf(x, y)));
+      }
+      sb.append(" |" + System.lineSeparator());
+    }
+    sb.append(horizontalBorder);
+    return sb.toString();
+  }
+}
@@ -0,0 +1,149 @@
+package minesweeper.game;
+
+import static minesweeper.util.MinesweeperConstants.*;
+import java.util.Locale;
+import java.util.Objects;
+import minesweeper.game.Game.GameDifficulty;
+
+/**
+ * A short, typeable identifier for a board layout. Boards are generated from a 64-bit seed with
+ * <code>java.util.Random</code>, whose algorithm is fixed by its specification, so the same
+ * difficulty, dimensions and seed give the same mines on any JVM.
+ * <p>
+ * The textual form is the difficulty's initial, the dimensions and mine count (custom games only)
+ * and the seed as an unsigned base-36 number, e.g.
+ * <ul>
+ * <li><code>E-3W5E11264SGSF</code> for an expert board
+ * <li><code>C20x12x50-1Y2P0IJ32E8E7</code> for a 20x12 custom board with 50 mines
+ * </ul>
+ *
+ * @author Namdrib
+ *
+ */
+public final class BoardId {
+  final GameDifficulty difficulty;
+  final int width;
+  final int height;
+  final int numMines;
+  final long seed;
+
+  public BoardId(GameDifficulty difficulty, int width, int height, int numMines, long seed) {
+    this.difficulty = difficulty;
+    this.width = width;
+    this.height = height;
+    this.numMines = numMines;
+    this.seed = seed;
+  }
+
+  /**
+   * Make the board ID for a generated board. A board only keeps a preset difficulty if it has
+   * that preset's dimensions and mine count, otherwise it is custom.
+   */
+  public static BoardId of(GameDifficulty difficulty, int width, int height, int numMines,
+      long seed) {
+    BoardId id = new BoardId(difficulty, width, height, numMines, seed);
+    if (difficulty != GameDifficulty.CUSTOM && !parse(id.toString()).equals(id)) {
+      return new BoardId(GameDifficulty.CUSTOM, width, height, numMines, seed);
+    }
+    return id;
+  }
+
+  /**
+   * Read a board ID as written by <code>toString()</code>. Case and surrounding whitespace are
+   * ignored.
+   *
+   * @param id the textual board ID
+   * @return the board ID
+   * @throws IllegalArgumentException if <code>id</code> is not a valid board ID
+   */
+  public static BoardId parse(String id) {
+    String s = id.trim().toUpperCase(Locale.ROOT);
+    int dash = s.indexOf('-');
+    if (s.isEmpty() || dash < 1 || dash == s.length() - 1) {
+      throw new IllegalArgumentException("BoardId.parse(): malformed board ID. Found " + id);
+    }
+
+    long seed;
+    try {
+      seed = Long.parseUnsignedLong(s.substring(dash + 1), 36);
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("BoardId.parse(): seed: not base-36. Found " + id);
+    }
+
+    String prefix = s.substring(0, dash);
+    switch (prefix) {
+      case "B":
+        return new BoardId(GameDifficulty.BEGINNER, BEGINNER_X, BEGINNER_Y, BEGINNER_MINES,
+            seed);
+      case "I":
+        return new BoardId(GameDifficulty.INTERMEDIATE, INTERMEDIATE_X, INTERMEDIATE_Y,
+            INTERMEDIATE_MINES, seed);
+      case "E":
+        return new BoardId(GameDifficulty.EXPERT, EXPERT_X, EXPERT_Y, EXPERT_MINES, seed);
+      default:
+        break;
+    }
+
+    String[] custom = prefix.startsWith("C") ? prefix.substring(1).split("X") : new String[0];
+    if (custom.length != 3) {
+      throw new IllegalArgumentException("BoardId.parse(): unknown difficulty. Found " + id);
+    }
+    try {
+      return new BoardId(GameDifficulty.CUSTOM, Integer.parseInt(custom[0]),
+          Integer.parseInt(custom[1]), Integer.parseInt(custom[2]), seed);
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException(
+          "BoardId.parse(): custom dimensions: not integral. Found " + id);
+    }
+  }
+
+  public GameDifficulty getDifficulty() {
+    return difficulty;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public int getNumMines() {
+    return numMines;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  @Override
+  public String toString() {
+    String seedStr = Long.toUnsignedString(seed, 36).toUpperCase(Locale.ROOT);
+    switch (difficulty) {
+      case BEGINNER:
+        return "B-" + seedStr;
+      case INTERMEDIATE:
+        return "I-" + seedStr;
+      case EXPERT:
+        return "E-" + seedStr;
+      default:
+        return "C" + width + "x" + height + "x" + numMines + "-" + seedStr;
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof BoardId)) {
+      return false;
+    }
+    BoardId other = (BoardId) o;
+    return difficulty == other.difficulty && width == other.width && height == other.height
+        && numMines == other.numMines && seed == other.seed;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(difficulty, width, height, numMines, seed);
+  }
+}
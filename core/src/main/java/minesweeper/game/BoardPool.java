@@ -0,0 +1,198 @@
+package minesweeper.game;
+
+import static minesweeper.util.MinesweeperConstants.*;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.util.Util;
+
+/**
+ * Keeps a few new Games ready for each kind of board, so that starting a new game only has to
+ * take one. Each kind (difficulty, dimensions, mine count and first click mode) has its own
+ * bounded queue, which is topped up on a single background thread after every take.
+ * <p>
+ * Games are built on the background thread but not touched there once queued, so whoever takes
+ * one may use it on any thread (e.g. add listeners on the event thread). The first take of a new
+ * kind builds its Game directly, as there is nothing queued yet.
+ * <p>
+ * NO_GUESS Games are given the pool's SeedSearch. Those built in the background also have the
+ * search for a first click in the middle of the board done there, so that first click does not
+ * wait for it. Any other first click still searches when it is made.
+ *
+ * @author Namdrib
+ *
+ */
+public class BoardPool implements AutoCloseable {
+  final int capacity;
+  final Map<Key, BlockingQueue<Game>> ready;
+  final ExecutorService filler;
+  volatile SeedSearch seedSearch;
+
+  /**
+   * @param capacity how many Games to keep ready for each kind of board
+   */
+  public BoardPool(int capacity) {
+    this.capacity = capacity;
+    ready = new ConcurrentHashMap<>();
+    filler = Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "BoardPool");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Applies to Games built from now on, so Games already ready keep the search they were built
+   * with
+   *
+   * @param seedSearch given to NO_GUESS Games, to find their board on the first click
+   */
+  public void setSeedSearch(SeedSearch seedSearch) {
+    this.seedSearch = seedSearch;
+  }
+
+  /**
+   * Take a new Game. Arguments are as for the PackedGameImpl constructor, so for preset
+   * difficulties the dimensions and mine count are ignored.
+   *
+   * @return a new, unstarted Game with no listeners
+   */
+  public Game take(GameDifficulty difficulty, int width, int height, int numMines,
+      FirstClickMode firstClickMode) {
+    Key key = new Key(difficulty, width, height, numMines, firstClickMode);
+    BlockingQueue<Game> queue =
+        ready.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(capacity));
+    Game game = queue.poll();
+    if (game == null) {
+      game = create(key, false);
+    }
+    try {
+      filler.execute(() -> fill(key, queue));
+    } catch (RejectedExecutionException ex) {
+      // Closed, so nothing more is kept ready
+    }
+    return game;
+  }
+
+  /**
+   * Top up <code>queue</code> to capacity
+   */
+  void fill(Key key, BlockingQueue<Game> queue) {
+    while (queue.remainingCapacity() > 0) {
+      queue.offer(create(key, true));
+    }
+  }
+
+  /**
+   * @param ahead whether to search for the middle first click of a NO_GUESS Game now
+   * @return a new Game of this kind
+   */
+  Game create(Key key, boolean ahead) {
+    PackedGameImpl game = key.create();
+    SeedSearch search = seedSearch;
+    if (key.firstClickMode != FirstClickMode.NO_GUESS || search == null) {
+      return game;
+    }
+    if (ahead) {
+      int middle = game.indexOf(game.getWidth() / 2, game.getHeight() / 2);
+      long seed = game.pendingSeed;
+      OptionalLong found = search.find(game.getWidth(), game.getHeight(), game.getNumMines(),
+          seed, middle);
+      SeedSearch live = search;
+      search = (w, h, m, s, first) -> (first == middle && s == seed) ? found
+          : live.find(w, h, m, s, first);
+    }
+    game.setSeedSearch(search);
+    return game;
+  }
+
+  /**
+   * @return how many Games of this kind are ready
+   */
+  public int readyCount(GameDifficulty difficulty, int width, int height, int numMines,
+      FirstClickMode firstClickMode) {
+    BlockingQueue<Game> queue =
+        ready.get(new Key(difficulty, width, height, numMines, firstClickMode));
+    return (queue == null) ? 0 : queue.size();
+  }
+
+  /**
+   * Stop filling, and drop every ready Game
+   */
+  @Override
+  public void close() {
+    filler.shutdownNow();
+    ready.clear();
+  }
+
+  /**
+   * A kind of board. Preset difficulties use the preset's size, and custom sizes are clamped, so
+   * requests for the same board share a queue.
+   *
+   * @author Namdrib
+   *
+   */
+  static final class Key {
+    final GameDifficulty difficulty;
+    final int width;
+    final int height;
+    final int numMines;
+    final FirstClickMode firstClickMode;
+
+    Key(GameDifficulty difficulty, int width, int height, int numMines,
+        FirstClickMode firstClickMode) {
+      this.difficulty = difficulty;
+      this.firstClickMode = firstClickMode;
+      switch (difficulty) {
+        case BEGINNER:
+          this.width = BEGINNER_X;
+          this.height = BEGINNER_Y;
+          this.numMines = BEGINNER_MINES;
+          break;
+        case INTERMEDIATE:
+          this.width = INTERMEDIATE_X;
+          this.height = INTERMEDIATE_Y;
+          this.numMines = INTERMEDIATE_MINES;
+          break;
+        case EXPERT:
+          this.width = EXPERT_X;
+          this.height = EXPERT_Y;
+          this.numMines = EXPERT_MINES;
+          break;
+        case CUSTOM:
+        default:
+          this.width = Util.clamp(width, MIN_DIM_X, MAX_DIM_X);
+          this.height = Util.clamp(height, MIN_DIM_Y, MAX_DIM_Y);
+          this.numMines = Util.clamp(numMines, MIN_MINES, (this.width - 1) * (this.height - 1));
+          break;
+      }
+    }
+
+    PackedGameImpl create() {
+      return new PackedGameImpl(difficulty, width, height, numMines, firstClickMode);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(difficulty, width, height, numMines, firstClickMode);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key k = (Key) o;
+      return difficulty == k.difficulty && width == k.width && height == k.height
+          && numMines == k.numMines && firstClickMode == k.firstClickMode;
+    }
+  }
+}
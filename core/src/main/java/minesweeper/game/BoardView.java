@@ -0,0 +1,56 @@
+package minesweeper.game;
+
+import java.util.function.IntConsumer;
+import minesweeper.cell.Cell.CellState;
+
+/**
+ * A read-only view of a Game's board. Reads go straight through to the Game, so nothing is copied
+ * and the view is always up to date. Cells are addressed by index, <code>y * width + x</code>.
+ *
+ * @author Namdrib
+ *
+ */
+public interface BoardView {
+  /**
+   *
+   * @return the number of Cells in each row
+   */
+  public int width();
+
+  /**
+   *
+   * @return the number of Cells in each column
+   */
+  public int height();
+
+  /**
+   *
+   * @param index index of the Cell
+   * @return <code>true</code> if the Cell has a mine
+   */
+  public boolean isMine(int index);
+
+  /**
+   *
+   * @param index index of the Cell
+   * @return the number of mines around the Cell, or -1 if it is a mine
+   */
+  public int number(int index);
+
+  /**
+   *
+   * @param index index of the Cell
+   * @return what the Cell currently shows
+   */
+  public CellState state(int index);
+
+  /**
+   * Call <code>action</code> with the index of each mine, in increasing order
+   */
+  public void forEachMine(IntConsumer action);
+
+  /**
+   * Call <code>action</code> with the index of each open Cell, in increasing order
+   */
+  public void forEachOpen(IntConsumer action);
+}
@@ -0,0 +1,56 @@
+package minesweeper.game;
+
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * The indices of every Cell whose state changed during one user action (an open, a chord or a
+ * flag). Games hand one of these to their listeners when the action is over, so a cascade that
+ * opens thousands of Cells is one notification rather than thousands.
+ *
+ * @author Namdrib
+ *
+ */
+public class ChangeSet {
+  final BitSet dirty;
+
+  public ChangeSet() {
+    dirty = new BitSet();
+  }
+
+  /**
+   * Record a change to the Cell at <code>index</code>. Adding the same Cell again does nothing.
+   */
+  public void add(int index) {
+    dirty.set(index);
+  }
+
+  public boolean contains(int index) {
+    return dirty.get(index);
+  }
+
+  public boolean isEmpty() {
+    return dirty.isEmpty();
+  }
+
+  /**
+   * @return the number of changed Cells
+   */
+  public int size() {
+    return dirty.cardinality();
+  }
+
+  /**
+   * Call <code>action</code> with the index of each changed Cell, in increasing order
+   */
+  public void forEach(IntConsumer action) {
+    for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+      action.accept(i);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return dirty.toString();
+  }
+}
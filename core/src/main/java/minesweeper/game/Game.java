@@ -0,0 +1,344 @@
+package minesweeper.game;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.IntConsumer;
+import minesweeper.cell.Cell;
+import minesweeper.cell.Cell.CellState;
+
+/**
+ * 
+ * @author Namdrib
+ *
+ *         Keeps track of the Cells and the timing information associated with the game
+ *
+ */
+public interface Game {
+  /**
+   * Used to determine whether to write high scores. A custom game with the same dimensions and
+   * mines as a preset difficulty does not count as that difficulty. Only check high scores if the
+   * provided difficulty is one of BEGINNER, INTERMEDIATE or EXPERT
+   * 
+   * @author Namdrib
+   *
+   */
+  public enum GameDifficulty {
+    BEGINNER, // beginner difficulty (9x9, 10 mines)
+    INTERMEDIATE, // intermediate difficulty (16x16, 40 mines)
+    EXPERT, // expert difficulty (16x30, 99 mines)
+    CUSTOM, // custom difficulty
+  }
+
+  /**
+   * What happens on the first click of a game
+   * 
+   * @author Namdrib
+   *
+   */
+  public enum FirstClickMode {
+    CLASSIC, // mines are placed up front. A mine under the first click is moved elsewhere
+    SAFE, // mines are placed on the first click, never under it
+    OPENING, // mines are placed on the first click, never under it or next to it
+    NO_GUESS, // as OPENING, and the board can be won from there without guessing
+  }
+
+  /**
+   * @param gl a listener for events
+   */
+  public void addListener(GameListener gl);
+
+  /**
+   * @param gl a listener for events
+   */
+  public void removeListener(GameListener gl);
+
+  /**
+   * Choose the thread that listeners are called on. By default they are called directly, on
+   * whichever thread caused the event. A UI should pass its event thread's executor (e.g.
+   * <code>SwingUtilities::invokeLater</code>), so that ticks from a timer thread do not touch
+   * components.
+   * 
+   * @param executor runs every listener call
+   */
+  public void setListenerExecutor(Executor executor);
+
+  /**
+   * Initialise the board to the specified size and number of mines. Also populate the board with
+   * that number of mines (from a random seed) and set all the Cell values.
+   * <p>
+   * Also sets each Cell's number based on neighbouring mines. For example, if the Cell contains a
+   * mine, it should be -1. If there are two adjacent mines, the number should be 2. If there are no
+   * adjacent mines, this number should be 0. Rules:
+   * <p>
+   * <ul>
+   * <li>width must be between 9 and 30 (inclusive)
+   * <li>height must be between 9 and 24 (inclusive)
+   * <li>numMines must be between 10 and (width-1)*(height-1) (inclusive)
+   * <li>Attempts to set the size to anything else results in the offending dimension being
+   * "clamped" to its appropriate range.
+   * </ul>
+   * <p>
+   * 
+   * @param width requested board width (Cells)
+   * @param height requested board height (Cells)
+   * @param numMines requested board mine count (Cells with mines)
+   */
+  public void createBoard(int width, int height, int numMines);
+
+  /**
+   * Same as <code>createBoard(width, height, numMines)</code>, but the mines are placed by a
+   * <code>java.util.Random</code> seeded with <code>seed</code>. The same (clamped) dimensions,
+   * mine count and seed always give the same board.
+   * 
+   * @param width requested board width (Cells)
+   * @param height requested board height (Cells)
+   * @param numMines requested board mine count (Cells with mines)
+   * @param seed seed for placing the mines
+   */
+  public void createBoard(int width, int height, int numMines, long seed);
+
+  /**
+   * Initialise the board to contain mines where specified by mines
+   * 
+   * Used to give a predetermined board. Assume the size and number of mines in `mines` is correct
+   * 
+   * @param mines nested List of Booleans, representing the layout of mines on the board
+   */
+  public void createBoard(List<List<Boolean>> mines);
+
+  /**
+   * 
+   * @param cell target Cell
+   * @return a Set of up to 8 Cells neighbouring the Cell specified by the input Cell
+   */
+  public Set<Cell> getNeighboursOf(Cell cell);
+
+  /**
+   * Call <code>action</code> with the index of each of the up to 8 Cells neighbouring the Cell at
+   * <code>index</code>. Indices are <code>y * width + x</code>. Unlike
+   * <code>getNeighboursOf()</code>, this does not allocate a Set.
+   * 
+   * @param index index of the target Cell
+   * @param action called once per neighbouring index
+   */
+  public void forEachNeighbour(int index, IntConsumer action);
+
+  /**
+   * 
+   * @return the neighbour table for the current board size, for allocation-free iteration in hot
+   *         loops
+   */
+  public NeighbourTable getNeighbourTable();
+
+  /**
+   * 
+   * @param index <code>y * width + x</code>
+   * @return the Cell at <code>index</code>
+   */
+  public Cell getCell(int index);
+
+  /**
+   * 
+   * @return a point representing (x, y) where x and y are the number of Cells in each dimension
+   */
+  public Point getDimensions();
+
+  /**
+   * 
+   * @return the total number of mines
+   */
+  public int getNumMines();
+
+  /**
+   * This should be <code>numMines - numFlags</code>, regardless of whether the flags correspond to
+   * a mine. For example if the Board has 10 mines, and 6 flags have been used anywhere, then this
+   * returns 4. If the number is negative, too many flags have been placed.
+   * 
+   * @return the number of "unflagged" mines. This number can be negative.
+   */
+  public int getRemainingMines();
+
+  /**
+   * Only used by the CLASSIC first click mode, or by boards given up front.
+   * <p>
+   * Move the mine located at <code>cell</code> to the top-left Cell. If the top-left Cell already
+   * has a mine, relocate it to the next one to the right, and so on, until a free spot is found. If
+   * the first free Cell to be found is <code>cell</code>, skip it.
+   * <p>
+   * e.g. if <code>cell</code> is at position (1, 0), and there is a mine at (0, 0), then move the
+   * mine to (2, 0). If (2, 0) already has a mine, move it to (3, 0).
+   * 
+   * @param cell whose mine needs a relocation
+   */
+  public void relocateMine(Cell cell);
+
+  /**
+   * Used to alert listeners that a flag has been changed. Should trigger recalculation of
+   * <code>getRemainingMines()</code>
+   */
+  public void flagChanged();
+
+  /**
+   * Used by Cells to report every change to their CellState, so the Game can keep count of opened
+   * Cells, opened mines and flags without scanning the board. Should be called before listeners
+   * are alerted of the change.
+   * 
+   * @param cell the Cell that changed
+   * @param from its previous state
+   * @param to its new state
+   */
+  public void cellStateChanged(Cell cell, CellState from, CellState to);
+
+  /**
+   * Boards that look the same to a solver have the same hash, whichever Game they are in, so
+   * the hash can key caches of solver results. Flags and marks are not included.
+   * 
+   * @return a Zobrist hash of every Cell's state (see Zobrist), kept up to date as Cells change
+   */
+  public long getStateHash();
+
+  /**
+   * Copy the board and the game's progress, for look-ahead and what-if searches that must not
+   * disturb this Game. The copy has no listeners, and changes to either Game do not affect the
+   * other. Games forked from a deferred board still place their mines on the first click, as
+   * this one would. To get a copy with PackedGameImpl's index-based methods from any Game, use
+   * <code>PackedGameImpl.copyOf()</code>.
+   *
+   * @return an independent copy of this Game
+   */
+  public Game fork();
+
+  /**
+   * Start collecting Cell changes into one ChangeSet. Calls may be nested, and the ChangeSet is
+   * only sent when the outermost <code>endChanges()</code> is reached.
+   */
+  public void beginChanges();
+
+  /**
+   * Finish a <code>beginChanges()</code>. At the outermost level, if any Cells changed, alert
+   * listeners with <code>GameListener.cellsChanged()</code> and then call
+   * <code>setFinished()</code>, once for the whole action.
+   */
+  public void endChanges();
+
+  /**
+   * If <code>cell</code> is open and has as many flags around it as its number, open all its
+   * other neighbours indirectly. Listeners hear about the whole chord at once.
+   * 
+   * @param cell the Cell being chorded
+   */
+  public void chord(Cell cell);
+
+  /**
+   * Returns the Game's own Cells, not a copy, so changes made through them are changes to the
+   * game. To look at the board without changing it, use <code>getBoardView()</code>.
+   * 
+   * @return the Cells, one List per row
+   */
+  public List<List<Cell>> getCells();
+
+  /**
+   * 
+   * @return a read-only view of the board, which stays up to date as the game goes on
+   */
+  public BoardView getBoardView();
+
+  /**
+   * Turn marks (?) on or off for every Cell
+   * 
+   * @param marking whether flagged Cells can be marked
+   */
+  public void setMarking(boolean marking);
+
+  /**
+   * 
+   * @return the ID from which the current board can be generated again, or <code>null</code> if
+   *         the board was not generated from a seed (e.g. it was read from a file)
+   */
+  public BoardId getBoardId();
+
+  /**
+   * 
+   * @return the game difficulty
+   */
+  public GameDifficulty getDifficulty();
+
+  /**
+   * Called regularly by a timer, ideally several times a second. Does not move the clock on, as
+   * time is measured with <code>System.nanoTime()</code>, but alerts listeners whenever the whole
+   * number of seconds passed changes.
+   */
+  public void tick();
+
+  /**
+   * 
+   * @return the time from the first click to now, or to the end of the game once finished, in
+   *         milliseconds. <code>0</code> until the game has started.
+   */
+  public long getElapsedMillis();
+
+  /**
+   * This is not capped at <code>MAX_SECONDS</code>. Capping the displayed time is up to the UI.
+   * 
+   * @return the number of whole seconds passed since the game was started
+   */
+  public int getSecondsPassed();
+
+  /**
+   * Set <code>finished</code> to a code signifying the game state. This only looks at running
+   * counts, so it is cheap enough to call after every change. The <code>finished</code> codes are
+   * as follows:
+   * <ul>
+   * <li><code>0</code>: The game is ongoing
+   * <li><code>1</code>: The game has been won (all non-mine Cells opened)
+   * <li><code>2</code>: A mine has been exploded
+   * </ul>
+   * Also stops the clock once the game is finished.
+   */
+  public void setFinished();
+
+  /**
+   * 
+   * @return a code representing whether the game is finished, as set by <code>isFinishied()</code>
+   * 
+   * @see isFinished()
+   */
+  public int getFinished();
+
+  /**
+   * 
+   * @return <code>true</code> if the game has started, <code>false</code> otherwise
+   */
+  public boolean isStarted();
+
+  /**
+   * Called to start the game. Starts the clock.
+   */
+  public void start();
+
+  /**
+   * Called to start the game when <code>first</code> is about to be opened for the first time.
+   * Depending on <code>getFirstClickMode()</code>, this either moves a mine out from under
+   * <code>first</code>, or places all the mines (using the board's seed) so that
+   * <code>first</code> (and maybe its neighbours) are clear.
+   * 
+   * @param first the first Cell to be opened
+   */
+  public void start(Cell first);
+
+  /**
+   * 
+   * @return how the first click of this game is handled
+   */
+  public FirstClickMode getFirstClickMode();
+
+  /**
+   * 
+   * @return <code>true</code> if the mines were placed by a NO_GUESS search that found a board
+   *         which can be won without guessing. Until the first click, and if the search fell back
+   *         to an ordinary OPENING board, this is <code>false</code>.
+   */
+  public boolean isGuessFree();
+}
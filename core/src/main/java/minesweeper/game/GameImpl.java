@@ -0,0 +1,242 @@
+package minesweeper.game;
+
+import static minesweeper.util.MinesweeperConstants.*;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import minesweeper.cell.Cell;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.cell.CellImpl;
+
+/**
+ * A Game whose board is a grid of CellImpls, each holding its own state and listeners. See
+ * AbstractGame for the threading rules.
+ * 
+ * @author Namdrib
+ *
+ */
+public class GameImpl extends AbstractGame {
+  /**
+   * Used to switch upon when alerting listeners
+   * 
+   * @author Namdrib
+   *
+   */
+  public enum GameChangeType {
+    LOSE, // tile change (something to do with the board)
+    WIN, // other changes
+    TICK, // timing change
+    FLAG, // Cell flag changes
+  }
+
+  List<List<Cell>> cells;
+  // The same Cells as cells, indexed by y * width + x
+  Cell[] indexedCells;
+
+  public GameImpl() {
+    this(GameDifficulty.BEGINNER, FirstClickMode.CLASSIC);
+    createBoard(BEGINNER_X, BEGINNER_Y, BEGINNER_MINES);
+  }
+
+  /**
+   * Set up everything but the board, which every public constructor then creates exactly once
+   */
+  private GameImpl(GameDifficulty difficulty, FirstClickMode firstClickMode) {
+    super(difficulty, firstClickMode);
+    view = new BoardViewImpl();
+  }
+
+  public GameImpl(GameDifficulty difficulty, int width, int height, int numMines) {
+    this(difficulty, width, height, numMines, FirstClickMode.CLASSIC);
+  }
+
+  /**
+   * 
+   * @param firstClickMode whether to place mines now, or wait for the first click
+   */
+  public GameImpl(GameDifficulty difficulty, int width, int height, int numMines,
+      FirstClickMode firstClickMode) {
+    this(difficulty, firstClickMode);
+
+    switch (difficulty) {
+      case BEGINNER:
+        createBoard(BEGINNER_X, BEGINNER_Y, BEGINNER_MINES);
+        break;
+      case INTERMEDIATE:
+        createBoard(INTERMEDIATE_X, INTERMEDIATE_Y, INTERMEDIATE_MINES);
+        break;
+      case EXPERT:
+        createBoard(EXPERT_X, EXPERT_Y, EXPERT_MINES);
+        break;
+      case CUSTOM:
+      default:
+        createBoard(width, height, numMines);
+        break;
+    }
+    flagChanged();
+  }
+
+  /**
+   * Play the board described by <code>boardId</code> again
+   * 
+   * @param boardId as given by <code>getBoardId()</code>
+   */
+  public GameImpl(BoardId boardId) {
+    this(boardId, FirstClickMode.CLASSIC);
+  }
+
+  /**
+   * Play the board described by <code>boardId</code> again. For a deferred
+   * <code>firstClickMode</code>, the mines also depend on where the first click is.
+   * 
+   * @param boardId as given by <code>getBoardId()</code>
+   * @param firstClickMode whether to place mines now, or wait for the first click
+   */
+  public GameImpl(BoardId boardId, FirstClickMode firstClickMode) {
+    this(boardId.getDifficulty(), firstClickMode);
+    createBoard(boardId.getWidth(), boardId.getHeight(), boardId.getNumMines(),
+        boardId.getSeed());
+    flagChanged();
+  }
+
+  @Override
+  void initBoard(int width, int height) {
+    super.initBoard(width, height);
+    indexedCells = new Cell[width * height];
+    cells = new ArrayList<>();
+    for (int i = 0; i < height; i++) {
+      List<Cell> oneRow = new ArrayList<>();
+      for (int j = 0; j < width; j++) {
+        Cell cell = new CellImpl(this, new Point(j, i), i * width + j, false);
+        cell.setMarking(marking);
+        indexedCells[i * width + j] = cell;
+        oneRow.add(cell);
+      }
+      cells.add(oneRow);
+    }
+  }
+
+  // --- INDEX-BASED ACCESS, THROUGH THE CELLS ---
+
+  @Override
+  public int getNumber(int index) {
+    return indexedCells[index].getNumber();
+  }
+
+  @Override
+  void setNumber(int index, int number) {
+    indexedCells[index].setNumber(number);
+  }
+
+  @Override
+  public boolean isMine(int index) {
+    return indexedCells[index].isMine();
+  }
+
+  @Override
+  public boolean isOpen(int index) {
+    return indexedCells[index].isOpen();
+  }
+
+  @Override
+  public int getFlagState(int index) {
+    return indexedCells[index].getFlagState();
+  }
+
+  @Override
+  public void open(int index, boolean direct) {
+    indexedCells[index].open(direct);
+  }
+
+  @Override
+  String cellToString(int index) {
+    return String.valueOf(indexedCells[index]);
+  }
+
+  @Override
+  public Cell getCell(int index) {
+    return indexedCells[index];
+  }
+
+  @Override
+  public List<List<Cell>> getCells() {
+    return cells;
+  }
+
+  @Override
+  public void setMarking(boolean marking) {
+    super.setMarking(marking);
+    for (Cell c : indexedCells) {
+      c.setMarking(marking);
+    }
+  }
+
+  @Override
+  public void cellStateChanged(Cell cell, CellState from, CellState to) {
+    counts.update(from, to);
+    changes.add(cell.getIndex());
+    stateHash ^= Zobrist.key(cell.getIndex(), from) ^ Zobrist.key(cell.getIndex(), to);
+  }
+
+  /**
+   * The copy is a PackedGameImpl, so it takes one byte per Cell rather than a CellImpl, and has
+   * no listeners of any kind
+   */
+  @Override
+  public PackedGameImpl fork() {
+    return PackedGameImpl.copyOf(this);
+  }
+
+  /**
+   * Reads through to <code>indexedCells</code>, so it follows the board across
+   * <code>createBoard()</code>
+   * 
+   * @author Namdrib
+   *
+   */
+  private class BoardViewImpl implements BoardView {
+    @Override
+    public int width() {
+      return width;
+    }
+
+    @Override
+    public int height() {
+      return height;
+    }
+
+    @Override
+    public boolean isMine(int index) {
+      return indexedCells[index].isMine();
+    }
+
+    @Override
+    public int number(int index) {
+      return indexedCells[index].getNumber();
+    }
+
+    @Override
+    public CellState state(int index) {
+      return indexedCells[index].getCellState();
+    }
+
+    @Override
+    public void forEachMine(IntConsumer action) {
+      for (int i = 0; i < indexedCells.length; i++) {
+        if (indexedCells[i].isMine()) {
+          action.accept(i);
+        }
+      }
+    }
+
+    @Override
+    public void forEachOpen(IntConsumer action) {
+      for (int i = 0; i < indexedCells.length; i++) {
+        if (indexedCells[i].isOpen()) {
+          action.accept(i);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package minesweeper.game;
+
+public interface GameListener {
+  public void gameLose();
+
+  public void gameWin();
+
+  public void gameTick();
+
+  public void flagChanged();
+
+  /**
+   * Called once at the end of each user action (open, chord, flag) that changed any Cells
+   * 
+   * @param changes the index of every Cell whose state changed
+   */
+  public void cellsChanged(ChangeSet changes);
+}
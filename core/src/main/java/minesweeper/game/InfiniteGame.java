@@ -0,0 +1,613 @@
+package minesweeper.game;
+
+import static minesweeper.game.PackedGameImpl.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.game.GameImpl.GameChangeType;
+import minesweeper.util.Util;
+
+/**
+ * An unbounded Minesweeper board, for endurance play. There is no win condition: the game goes
+ * on until a mine is opened.
+ * <p>
+ * The board is split into square chunks of <code>CHUNK_SIZE * CHUNK_SIZE</code> Cells. A chunk's
+ * mines are a pure function of the game's seed and the chunk's co-ordinates, so nothing is stored
+ * for a chunk until a cascade or the viewport first touches it. Touched chunks are materialised
+ * (mine bits, numbers and CellStates, packed the same way as in PackedGameImpl) and kept in an
+ * LRU. When the LRU is over capacity, the coldest chunks are dropped; if a player has changed
+ * anything in a chunk, only its 2-bit-per-Cell state is kept, and its mines and numbers are
+ * regenerated from the seed on the next touch.
+ * <p>
+ * Co-ordinates are plain <code>int</code>s and may be negative.
+ *
+ * @author Namdrib
+ *
+ */
+public class InfiniteGame {
+  public static final int CHUNK_BITS = 5;
+  public static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+
+  public static final int DEFAULT_MAX_LOADED_CHUNKS = 256;
+  static final int MIN_LOADED_CHUNKS = 16;
+
+  // Below this, zero-regions may never end
+  public static final double MIN_DENSITY = 0.12;
+  public static final double MAX_DENSITY = 0.5;
+  public static final double DEFAULT_DENSITY = 99.0 / 480.0; // same as expert
+
+  // Compact (spilled) Cell states, 2 bits each
+  static final int SPILL_CLOSED = 0;
+  static final int SPILL_FLAGGED = 1;
+  static final int SPILL_MARKED = 2;
+  static final int SPILL_OPEN = 3;
+
+  /**
+   * A materialised chunk
+   */
+  static class Chunk {
+    final long[] mines = new long[CHUNK_CELLS / 64];
+    // Low nibble: number (MINE for a mine). High nibble: CellState ordinal.
+    final byte[] cells = new byte[CHUNK_CELLS];
+    // Whether the player has changed anything, i.e. whether it must be spilled when evicted
+    boolean dirty;
+
+    boolean isMine(int i) {
+      return (mines[i >>> 6] & (1L << i)) != 0;
+    }
+  }
+
+  Set<GameListener> listeners;
+  final long seed;
+  final double density;
+  final int minesPerChunk;
+  final int maxLoadedChunks;
+  boolean marking;
+
+  // Access-ordered, so the eldest entry is the least recently touched
+  LinkedHashMap<Long, Chunk> loaded;
+  Map<Long, long[]> spilled;
+
+  boolean started;
+  int startX;
+  int startY;
+  int finished;
+  long exploded;
+  // Flags shown as incorrect when the game was lost (these can not be told apart when spilled)
+  Set<Long> incorrectFlags;
+  long opened;
+  long flags;
+
+  // Work queue for cascades, grown as needed
+  int[] queueX;
+  int[] queueY;
+  // Scratch for generating mines: the shuffled Cell indices, and the mines of the chunks around
+  // one being numbered
+  final int[] indices;
+  final long[][] around;
+
+  public InfiniteGame(long seed) {
+    this(seed, DEFAULT_DENSITY, DEFAULT_MAX_LOADED_CHUNKS);
+  }
+
+  /**
+   *
+   * @param seed decides the whole (infinite) layout
+   * @param density the proportion of mines, clamped to [<code>MIN_DENSITY</code>,
+   *        <code>MAX_DENSITY</code>]
+   * @param maxLoadedChunks how many chunks to keep materialised at once
+   */
+  public InfiniteGame(long seed, double density, int maxLoadedChunks) {
+    listeners = new HashSet<>();
+    this.seed = seed;
+    this.density = Util.clamp(density, MIN_DENSITY, MAX_DENSITY);
+    minesPerChunk = (int) Math.round(this.density * CHUNK_CELLS);
+    this.maxLoadedChunks = Math.max(maxLoadedChunks, MIN_LOADED_CHUNKS);
+    marking = true;
+    loaded = new LinkedHashMap<>(16, 0.75f, true);
+    spilled = new HashMap<>();
+    incorrectFlags = new HashSet<>();
+    started = false;
+    finished = 0;
+    opened = 0;
+    flags = 0;
+    queueX = new int[CHUNK_CELLS];
+    queueY = new int[CHUNK_CELLS];
+    indices = new int[CHUNK_CELLS];
+    around = new long[9][CHUNK_CELLS / 64];
+  }
+
+  public void addListener(GameListener gl) {
+    listeners.add(gl);
+  }
+
+  public void removeListener(GameListener gl) {
+    listeners.remove(gl);
+  }
+
+  void alertListeners(GameChangeType type) {
+    switch (type) {
+      case LOSE:
+        listeners.stream().forEach(e -> e.gameLose());
+        break;
+      case FLAG:
+        listeners.stream().forEach(e -> e.flagChanged());
+        break;
+      default:
+        return;
+    }
+  }
+
+  // --- CHUNKS ---
+
+  static long key(int x, int y) {
+    return ((long) x << 32) | (y & 0xFFFFFFFFL);
+  }
+
+  static int local(int x, int y) {
+    return ((y & CHUNK_MASK) << CHUNK_BITS) | (x & CHUNK_MASK);
+  }
+
+  /**
+   * @return the chunk containing (x, y), materialising it if necessary
+   */
+  Chunk chunkAt(int x, int y) {
+    int cx = x >> CHUNK_BITS;
+    int cy = y >> CHUNK_BITS;
+    Long k = key(cx, cy);
+    Chunk chunk = loaded.get(k);
+    if (chunk == null) {
+      chunk = materialise(cx, cy);
+      loaded.put(k, chunk);
+    }
+    return chunk;
+  }
+
+  /**
+   * Generate the mines of chunk (cx, cy) by partially shuffling its Cell indices with a random
+   * number generator seeded from the game's seed and the chunk's co-ordinates
+   *
+   * @param mines filled in with the chunk's mine bits
+   */
+  void generateMines(int cx, int cy, long[] mines) {
+    Arrays.fill(mines, 0);
+    SplittableRandom random = new SplittableRandom(seed ^ (key(cx, cy) * 0x9E3779B97F4A7C15L));
+    for (int i = 0; i < CHUNK_CELLS; i++) {
+      indices[i] = i;
+    }
+    for (int i = 0; i < minesPerChunk; i++) {
+      int j = i + random.nextInt(CHUNK_CELLS - i);
+      int mine = indices[j];
+      indices[j] = indices[i];
+      mines[mine >>> 6] |= 1L << mine;
+    }
+
+    // Keep the first click (and its neighbours) clear
+    if (started) {
+      for (int y = startY - 1; y <= startY + 1; y++) {
+        for (int x = startX - 1; x <= startX + 1; x++) {
+          if ((x >> CHUNK_BITS) == cx && (y >> CHUNK_BITS) == cy) {
+            int i = local(x, y);
+            mines[i >>> 6] &= ~(1L << i);
+          }
+        }
+      }
+    }
+  }
+
+  Chunk materialise(int cx, int cy) {
+    Chunk chunk = new Chunk();
+    generateMines(cx, cy, chunk.mines);
+    number(chunk, cx, cy);
+
+    long[] compact = spilled.remove(key(cx, cy));
+    for (int i = 0; i < CHUNK_CELLS; i++) {
+      CellState state = CellState.FLAG0;
+      if (compact != null) {
+        state = unspill(compact, i, chunk, (cx << CHUNK_BITS) | (i & CHUNK_MASK),
+            (cy << CHUNK_BITS) | (i >>> CHUNK_BITS));
+      }
+      chunk.cells[i] = (byte) ((state.ordinal() << STATE_SHIFT) | (chunk.cells[i] & NUMBER_MASK));
+    }
+    chunk.dirty = (compact != null);
+    return chunk;
+  }
+
+  /**
+   * Work out the number of every Cell in a chunk. The mines of the 8 surrounding chunks are
+   * needed to number the border Cells: those already materialised are read, and the rest are
+   * generated into scratch (but not materialised).
+   */
+  void number(Chunk chunk, int cx, int cy) {
+    long[][] mines = new long[9][];
+    for (int dy = -1; dy <= 1; dy++) {
+      for (int dx = -1; dx <= 1; dx++) {
+        int which = (dy + 1) * 3 + dx + 1;
+        Chunk neighbour = (dx == 0 && dy == 0) ? chunk : loaded.get(key(cx + dx, cy + dy));
+        if (neighbour != null) {
+          mines[which] = neighbour.mines;
+        } else {
+          generateMines(cx + dx, cy + dy, around[which]);
+          mines[which] = around[which];
+        }
+      }
+    }
+    for (int ly = 0; ly < CHUNK_SIZE; ly++) {
+      for (int lx = 0; lx < CHUNK_SIZE; lx++) {
+        int i = (ly << CHUNK_BITS) | lx;
+        if (chunk.isMine(i)) {
+          chunk.cells[i] = (byte) ((chunk.cells[i] & ~NUMBER_MASK) | MINE);
+          continue;
+        }
+        int count = 0;
+        for (int n = ly - 1; n <= ly + 1; n++) {
+          for (int m = lx - 1; m <= lx + 1; m++) {
+            int which = ((n < 0) ? 0 : (n < CHUNK_SIZE) ? 1 : 2) * 3
+                + ((m < 0) ? 0 : (m < CHUNK_SIZE) ? 1 : 2);
+            int j = ((n & CHUNK_MASK) << CHUNK_BITS) | (m & CHUNK_MASK);
+            if ((mines[which][j >>> 6] & (1L << j)) != 0) {
+              count++;
+            }
+          }
+        }
+        chunk.cells[i] = (byte) ((chunk.cells[i] & ~NUMBER_MASK) | count);
+      }
+    }
+  }
+
+  /**
+   * Drop the least recently touched chunks until the LRU is back within capacity. Only called
+   * at the end of an operation, so no chunk is evicted while it is being worked on.
+   */
+  void trim() {
+    Iterator<Map.Entry<Long, Chunk>> it = loaded.entrySet().iterator();
+    while (loaded.size() > maxLoadedChunks && it.hasNext()) {
+      Map.Entry<Long, Chunk> eldest = it.next();
+      if (eldest.getValue().dirty) {
+        spilled.put(eldest.getKey(), spill(eldest.getValue()));
+      }
+      it.remove();
+    }
+  }
+
+  /**
+   * @return the chunk's CellStates at 2 bits per Cell
+   */
+  static long[] spill(Chunk chunk) {
+    long[] compact = new long[CHUNK_CELLS * 2 / 64];
+    for (int i = 0; i < CHUNK_CELLS; i++) {
+      CellState state = STATES[(chunk.cells[i] & 0xFF) >>> STATE_SHIFT];
+      long code;
+      switch (state) {
+        case FLAG0:
+          code = SPILL_CLOSED;
+          break;
+        case FLAG1:
+          code = SPILL_FLAGGED;
+          break;
+        case FLAG2:
+          code = SPILL_MARKED;
+          break;
+        default:
+          code = SPILL_OPEN;
+          break;
+      }
+      compact[(i * 2) >>> 6] |= code << ((i * 2) & 63);
+    }
+    return compact;
+  }
+
+  CellState unspill(long[] compact, int i, Chunk chunk, int x, int y) {
+    int code = (int) ((compact[(i * 2) >>> 6] >>> ((i * 2) & 63)) & 3);
+    switch (code) {
+      case SPILL_FLAGGED:
+        return CellState.FLAG1;
+      case SPILL_MARKED:
+        return CellState.FLAG2;
+      case SPILL_OPEN:
+        if (chunk.isMine(i)) {
+          return (key(x, y) == exploded) ? CellState.MINE2 : CellState.MINE1;
+        }
+        if (incorrectFlags.contains(key(x, y))) {
+          return CellState.MINE3;
+        }
+        return NUM_TO_STATE[chunk.cells[i] & NUMBER_MASK];
+      default:
+        return CellState.FLAG0;
+    }
+  }
+
+  /**
+   * Materialise every chunk overlapping the given rectangle, e.g. the part of the board that is
+   * on screen
+   */
+  public void touch(int x, int y, int width, int height) {
+    for (int cy = y >> CHUNK_BITS; cy <= (y + height - 1) >> CHUNK_BITS; cy++) {
+      for (int cx = x >> CHUNK_BITS; cx <= (x + width - 1) >> CHUNK_BITS; cx++) {
+        chunkAt(cx << CHUNK_BITS, cy << CHUNK_BITS);
+      }
+    }
+    trim();
+  }
+
+  /**
+   * Fix the first click, clearing any mines around it. Any chunk already materialised (e.g. by
+   * the viewport) that is affected gets its mines and numbers regenerated. All the mines are
+   * regenerated before any numbers, since numbering reads the mines of loaded neighbours.
+   */
+  void start(int x, int y) {
+    started = true;
+    startX = x;
+    startY = y;
+    for (int pass = 0; pass < 2; pass++) {
+      for (int cy = (y - 2) >> CHUNK_BITS; cy <= (y + 2) >> CHUNK_BITS; cy++) {
+        for (int cx = (x - 2) >> CHUNK_BITS; cx <= (x + 2) >> CHUNK_BITS; cx++) {
+          Chunk chunk = loaded.get(key(cx, cy));
+          if (chunk == null) {
+            continue;
+          }
+          if (pass == 0) {
+            generateMines(cx, cy, chunk.mines);
+          } else {
+            number(chunk, cx, cy);
+          }
+        }
+      }
+    }
+  }
+
+  // --- CELLS ---
+
+  CellState getCellState(Chunk chunk, int i) {
+    return STATES[(chunk.cells[i] & 0xFF) >>> STATE_SHIFT];
+  }
+
+  void setCellState(Chunk chunk, int i, CellState state) {
+    chunk.cells[i] = (byte) ((state.ordinal() << STATE_SHIFT) | (chunk.cells[i] & NUMBER_MASK));
+    chunk.dirty = true;
+  }
+
+  static boolean isOpen(CellState state) {
+    return state.ordinal() <= CellState.OPEN8.ordinal()
+        || state.ordinal() >= CellState.MINE1.ordinal();
+  }
+
+  public CellState getCellState(int x, int y) {
+    return getCellState(chunkAt(x, y), local(x, y));
+  }
+
+  public boolean isOpen(int x, int y) {
+    return isOpen(getCellState(x, y));
+  }
+
+  /**
+   * @return the number of the Cell at (x, y), or -1 for a mine
+   */
+  public int getNumber(int x, int y) {
+    int n = chunkAt(x, y).cells[local(x, y)] & NUMBER_MASK;
+    return (n == MINE) ? -1 : n;
+  }
+
+  public boolean isMine(int x, int y) {
+    return getNumber(x, y) == -1;
+  }
+
+  /**
+   * @see minesweeper.cell.Cell#getFlagState()
+   */
+  public int getFlagState(int x, int y) {
+    switch (getCellState(x, y)) {
+      case FLAG1:
+        return 1;
+      case FLAG2:
+        return 2;
+      default:
+        return 0;
+    }
+  }
+
+  public void setMarking(boolean marking) {
+    this.marking = marking;
+  }
+
+  /**
+   * Toggle the flag state of the Cell at (x, y). The order is <code>0 -> 1 -> [2 ->] 0</code>.
+   */
+  public void toggleFlag(int x, int y) {
+    if (finished != 0) {
+      return;
+    }
+    Chunk chunk = chunkAt(x, y);
+    int i = local(x, y);
+    switch (getCellState(chunk, i)) {
+      case FLAG0:
+        setCellState(chunk, i, CellState.FLAG1);
+        flags++;
+        alertListeners(GameChangeType.FLAG);
+        break;
+      case FLAG1:
+        setCellState(chunk, i, marking ? CellState.FLAG2 : CellState.FLAG0);
+        flags--;
+        alertListeners(GameChangeType.FLAG);
+        break;
+      case FLAG2:
+        setCellState(chunk, i, CellState.FLAG0);
+        break;
+      default:
+        break;
+    }
+    trim();
+  }
+
+  /**
+   * Open the Cell at (x, y) by a direct click. The first Cell opened, and its neighbours, are never
+   * mines.
+   */
+  public void open(int x, int y) {
+    if (finished != 0) {
+      return;
+    }
+    // A direct click on a flag does nothing, so it must not fix where the first click was either
+    if (getCellState(x, y) == CellState.FLAG1) {
+      trim();
+      return;
+    }
+    if (!started) {
+      start(x, y);
+    }
+    open(x, y, true);
+    trim();
+  }
+
+  /**
+   * If the Cell at (x, y) is open and has exactly as many flags around it as its number, open all
+   * of its neighbours indirectly
+   */
+  public void chord(int x, int y) {
+    if (finished != 0 || !isOpen(x, y) || getNumber(x, y) <= 0) {
+      return;
+    }
+    int neighbouringFlags = 0;
+    for (int n = y - 1; n <= y + 1; n++) {
+      for (int m = x - 1; m <= x + 1; m++) {
+        if (getFlagState(m, n) == 1) {
+          neighbouringFlags++;
+        }
+      }
+    }
+    if (neighbouringFlags == getNumber(x, y)) {
+      for (int n = y - 1; n <= y + 1; n++) {
+        for (int m = x - 1; m <= x + 1; m++) {
+          open(m, n, false);
+        }
+      }
+    }
+    trim();
+  }
+
+  void open(int x, int y, boolean direct) {
+    Chunk chunk = chunkAt(x, y);
+    int i = local(x, y);
+    CellState state = getCellState(chunk, i);
+    if (isOpen(state)) {
+      return;
+    }
+
+    // Flagged Cells are only ever opened indirectly, to show an incorrect flag
+    if (state == CellState.FLAG1) {
+      if (!direct && !chunk.isMine(i)) {
+        setCellState(chunk, i, CellState.MINE3);
+        incorrectFlags.add(key(x, y));
+        flags--;
+      }
+      return;
+    }
+
+    if (chunk.isMine(i)) {
+      setCellState(chunk, i, direct ? CellState.MINE2 : CellState.MINE1);
+      exploded = key(x, y);
+      finished = 2;
+      alertListeners(GameChangeType.LOSE);
+      return;
+    }
+    cascade(x, y);
+  }
+
+  /**
+   * Open the non-mine Cell at (x, y), and keep opening outwards through unopened, unflagged
+   * neighbours of zeros, across chunk boundaries
+   */
+  void cascade(int x, int y) {
+    int head = 0;
+    int tail = 0;
+    reveal(x, y);
+    queueX[tail] = x;
+    queueY[tail++] = y;
+
+    while (head < tail) {
+      int cx = queueX[head];
+      int cy = queueY[head++];
+      if (getNumber(cx, cy) != 0) {
+        continue;
+      }
+      for (int n = cy - 1; n <= cy + 1; n++) {
+        for (int m = cx - 1; m <= cx + 1; m++) {
+          CellState state = getCellState(m, n);
+          if (!isOpen(state) && state != CellState.FLAG1) {
+            reveal(m, n);
+            if (tail == queueX.length) {
+              queueX = Arrays.copyOf(queueX, tail * 2);
+              queueY = Arrays.copyOf(queueY, tail * 2);
+            }
+            queueX[tail] = m;
+            queueY[tail++] = n;
+          }
+        }
+      }
+    }
+  }
+
+  void reveal(int x, int y) {
+    Chunk chunk = chunkAt(x, y);
+    int i = local(x, y);
+    setCellState(chunk, i, NUM_TO_STATE[chunk.cells[i] & NUMBER_MASK]);
+    opened++;
+  }
+
+  // --- GAME STATE ---
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public double getDensity() {
+    return density;
+  }
+
+  public boolean isStarted() {
+    return started;
+  }
+
+  /**
+   * @return <code>0</code> while the game is ongoing, <code>2</code> once a mine has been opened
+   */
+  public int getFinished() {
+    return finished;
+  }
+
+  /**
+   * @return how many safe Cells have been opened, i.e. the score
+   */
+  public long getOpened() {
+    return opened;
+  }
+
+  /**
+   * @return how many flags are on the board
+   */
+  public long getFlags() {
+    return flags;
+  }
+
+  /**
+   * @return how many chunks are currently materialised
+   */
+  public int getLoadedChunks() {
+    return loaded.size();
+  }
+
+  /**
+   * @return how many chunks are only held in compact form
+   */
+  public int getSpilledChunks() {
+    return spilled.size();
+  }
+}
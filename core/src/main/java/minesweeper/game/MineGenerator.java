@@ -0,0 +1,111 @@
+package minesweeper.game;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses where the mines go on a board, using a partial Fisher-Yates shuffle of the Cell
+ * indices. Placing <code>n</code> mines on <code>c</code> Cells always takes <code>O(c)</code>
+ * work and exactly <code>n</code> random draws, no matter how dense the board is.
+ * <p>
+ * The random number generator is supplied by the caller. A generator holds on to its scratch
+ * array, so reusing one for many boards of the same size does not allocate beyond the result.
+ * Generators are not thread-safe.
+ *
+ * @author Namdrib
+ *
+ */
+public class MineGenerator {
+  Random random;
+  int[] indices;
+
+  /**
+   * Use the ThreadLocalRandom of whichever thread places the mines
+   */
+  public MineGenerator() {
+    this(null);
+  }
+
+  /**
+   * @param random source of randomness for every board placed by this generator, or
+   *        <code>null</code> to use ThreadLocalRandom
+   */
+  public MineGenerator(Random random) {
+    this.random = random;
+    indices = new int[0];
+  }
+
+  /**
+   * @return a fresh seed for a board, from this generator's source of randomness
+   */
+  public long nextSeed() {
+    return ((random != null) ? random : ThreadLocalRandom.current()).nextLong();
+  }
+
+  /**
+   * Choose <code>numMines</code> distinct Cells, uniformly at random
+   *
+   * @param numCells number of Cells on the board
+   * @param numMines number of mines to place, at most <code>numCells</code>
+   * @return the index of each mine, in the order they were chosen
+   */
+  public int[] place(int numCells, int numMines) {
+    return place(numCells, numMines, (random != null) ? random : ThreadLocalRandom.current());
+  }
+
+  /**
+   * Choose <code>numMines</code> distinct Cells using the given random number generator. Given
+   * equal generators (e.g. two <code>java.util.Random</code>s with the same seed), the result is
+   * the same.
+   *
+   * @param numCells number of Cells on the board
+   * @param numMines number of mines to place, at most <code>numCells</code>
+   * @param r source of randomness for this board only
+   * @return the index of each mine, in the order they were chosen
+   */
+  public int[] place(int numCells, int numMines, Random r) {
+    return place(numCells, numMines, r, new int[0]);
+  }
+
+  /**
+   * Choose <code>numMines</code> distinct Cells using the given random number generator, never
+   * choosing any of the <code>excluded</code> Cells
+   *
+   * @param numCells number of Cells on the board
+   * @param numMines number of mines to place, at most <code>numCells</code> less the number of
+   *        excluded Cells
+   * @param r source of randomness for this board only
+   * @param excluded distinct indices of Cells that must not have a mine
+   * @return the index of each mine, in the order they were chosen
+   */
+  public int[] place(int numCells, int numMines, Random r, int... excluded) {
+    int available = numCells - excluded.length;
+    if (numMines < 0 || numMines > available) {
+      throw new IllegalArgumentException("MineGenerator.place(): can not place " + numMines
+          + " mines on " + available + " Cells");
+    }
+    if (indices.length < numCells) {
+      indices = new int[numCells];
+    }
+    int n = 0;
+    candidates: for (int i = 0; i < numCells; i++) {
+      for (int e : excluded) {
+        if (e == i) {
+          continue candidates;
+        }
+      }
+      indices[n++] = i;
+    }
+
+    // After step i, indices[0..i] is a uniform random sample of the Cells
+    int[] mines = new int[numMines];
+    for (int i = 0; i < numMines; i++) {
+      int j = i + r.nextInt(n - i);
+      int mine = indices[j];
+      indices[j] = indices[i];
+      indices[i] = mine;
+      mines[i] = mine;
+    }
+    return mines;
+  }
+}
@@ -0,0 +1,111 @@
+package minesweeper.game;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * A precomputed table of every Cell's neighbours for one board size, so neighbours can be walked
+ * without allocating anything. Cells are referred to by index (<code>y * width + x</code>).
+ * <p>
+ * The neighbours of <code>index</code> are <code>get(start(index))</code> up to (but not
+ * including) <code>get(end(index))</code>:
+ *
+ * <pre>
+ * for (int k = table.start(index); k &lt; table.end(index); k++) {
+ *   int neighbour = table.get(k);
+ * }
+ * </pre>
+ *
+ * Tables are immutable and shared between all Games of the same size.
+ *
+ * @author Namdrib
+ *
+ */
+public final class NeighbourTable {
+  private static final Map<Long, NeighbourTable> tables = new ConcurrentHashMap<>();
+
+  final int width;
+  final int height;
+  // neighbours of i are neighbours[offsets[i]] to neighbours[offsets[i + 1] - 1]
+  final int[] offsets;
+  final int[] neighbours;
+
+  private NeighbourTable(int width, int height) {
+    this.width = width;
+    this.height = height;
+    offsets = new int[width * height + 1];
+    int[] scratch = new int[width * height * 8];
+    int k = 0;
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        offsets[y * width + x] = k;
+        for (int n = y - 1; n <= y + 1; n++) {
+          for (int m = x - 1; m <= x + 1; m++) {
+            if ((n == y && m == x) || n < 0 || m < 0 || n >= height || m >= width) {
+              continue;
+            }
+            scratch[k++] = n * width + m;
+          }
+        }
+      }
+    }
+    offsets[width * height] = k;
+    neighbours = new int[k];
+    System.arraycopy(scratch, 0, neighbours, 0, k);
+  }
+
+  /**
+   * @return the (shared) table for a board of the given size
+   */
+  public static NeighbourTable of(int width, int height) {
+    return tables.computeIfAbsent(((long) width << 32) | height,
+        k -> new NeighbourTable(width, height));
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * @return the position in the table of the first neighbour of <code>index</code>
+   */
+  public int start(int index) {
+    return offsets[index];
+  }
+
+  /**
+   * @return the position in the table just after the last neighbour of <code>index</code>
+   */
+  public int end(int index) {
+    return offsets[index + 1];
+  }
+
+  /**
+   * @return the Cell index at position <code>k</code> of the table
+   */
+  public int get(int k) {
+    return neighbours[k];
+  }
+
+  /**
+   * @return how many neighbours <code>index</code> has: 3, 5 or 8, or fewer on a board one Cell
+   *         wide or high
+   */
+  public int count(int index) {
+    return offsets[index + 1] - offsets[index];
+  }
+
+  /**
+   * Call <code>action</code> with each neighbour of <code>index</code>
+   */
+  public void forEach(int index, IntConsumer action) {
+    for (int k = offsets[index]; k < offsets[index + 1]; k++) {
+      action.accept(neighbours[k]);
+    }
+  }
+}
@@ -0,0 +1,734 @@
+package minesweeper.game;
+
+import static minesweeper.util.MinesweeperConstants.*;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+import minesweeper.cell.Cell;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.cell.CellListener;
+
+/**
+ * A Game whose board is stored in a single flat <code>byte[]</code>, indexed by
+ * <code>y * width + x</code>. Each byte packs a Cell's number (low nibble, <code>0xF</code> for a
+ * mine) and its CellState ordinal (high nibble). Whether a Cell is open and its flag state are
+ * both derived from the CellState, so one byte holds everything a CellImpl keeps in its fields.
+ * <p>
+ * Cells are still available through <code>getCells()</code> and <code>getNeighboursOf()</code>
+ * as thin views onto the array, so GamePanel and GameReaderWriter work unchanged. The views (and
+ * any per-Cell listeners) are only allocated when somebody asks for them. Headless users such as
+ * solvers and simulations should use the index-based methods instead.
+ *
+ * @author Namdrib
+ *
+ */
+public class PackedGameImpl extends AbstractGame {
+  // Layout of a single board byte
+  static final int NUMBER_MASK = 0x0F;
+  static final int MINE = 0x0F;
+  static final int STATE_SHIFT = 4;
+  static final CellState[] STATES = CellState.values();
+  static final CellState[] NUM_TO_STATE = {CellState.OPEN0, CellState.OPEN1, CellState.OPEN2,
+      CellState.OPEN3, CellState.OPEN4, CellState.OPEN5, CellState.OPEN6, CellState.OPEN7,
+      CellState.OPEN8};
+
+  byte[] board;
+
+  // Work queue for cascades, reused between calls
+  int[] queue;
+
+  // Only allocated once Cells are requested through the Game interface
+  Cell[] views;
+  List<List<Cell>> cells;
+  Map<Integer, Set<CellListener>> cellListeners;
+
+  public PackedGameImpl() {
+    this(GameDifficulty.BEGINNER, BEGINNER_X, BEGINNER_Y, BEGINNER_MINES);
+  }
+
+  public PackedGameImpl(GameDifficulty difficulty, int width, int height, int numMines) {
+    this(difficulty, width, height, numMines, ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * @param firstClickMode whether to place mines now, or wait for the first click
+   */
+  public PackedGameImpl(GameDifficulty difficulty, int width, int height, int numMines,
+      FirstClickMode firstClickMode) {
+    this(difficulty, width, height, numMines, ThreadLocalRandom.current().nextLong(),
+        firstClickMode);
+  }
+
+  /**
+   * @param seed seed for placing the mines
+   * @see Game#createBoard(int, int, int, long)
+   */
+  public PackedGameImpl(GameDifficulty difficulty, int width, int height, int numMines,
+      long seed) {
+    this(difficulty, width, height, numMines, seed, FirstClickMode.CLASSIC);
+  }
+
+  /**
+   * @param seed seed for placing the mines
+   * @param firstClickMode whether to place mines now, or wait for the first click
+   * @see Game#createBoard(int, int, int, long)
+   */
+  public PackedGameImpl(GameDifficulty difficulty, int width, int height, int numMines,
+      long seed, FirstClickMode firstClickMode) {
+    this(difficulty, firstClickMode);
+
+    switch (difficulty) {
+      case BEGINNER:
+        createBoard(BEGINNER_X, BEGINNER_Y, BEGINNER_MINES, seed);
+        break;
+      case INTERMEDIATE:
+        createBoard(INTERMEDIATE_X, INTERMEDIATE_Y, INTERMEDIATE_MINES, seed);
+        break;
+      case EXPERT:
+        createBoard(EXPERT_X, EXPERT_Y, EXPERT_MINES, seed);
+        break;
+      case CUSTOM:
+      default:
+        createBoard(width, height, numMines, seed);
+        break;
+    }
+  }
+
+  /**
+   * Everything but the board, which is left for the caller to create or copy
+   */
+  PackedGameImpl(GameDifficulty difficulty, FirstClickMode firstClickMode) {
+    super(difficulty, firstClickMode);
+    cellListeners = new HashMap<>();
+    view = new BoardViewImpl();
+  }
+
+  /**
+   * Play the board described by <code>boardId</code> again
+   *
+   * @param boardId as given by <code>getBoardId()</code>
+   */
+  public PackedGameImpl(BoardId boardId) {
+    this(boardId, FirstClickMode.CLASSIC);
+  }
+
+  /**
+   * Play the board described by <code>boardId</code> again. For a deferred
+   * <code>firstClickMode</code>, the mines also depend on where the first click is.
+   *
+   * @param boardId as given by <code>getBoardId()</code>
+   * @param firstClickMode whether to place mines now, or wait for the first click
+   */
+  public PackedGameImpl(BoardId boardId, FirstClickMode firstClickMode) {
+    this(boardId.getDifficulty(), boardId.getWidth(), boardId.getHeight(), boardId.getNumMines(),
+        boardId.getSeed(), firstClickMode);
+  }
+
+  /**
+   * Alerts the listeners of the Cell at <code>index</code>, if it has any
+   */
+  void alertCellListeners(int index) {
+    Set<CellListener> cls = cellListeners.get(index);
+    if (cls != null) {
+      cls.stream().forEach(e -> e.cellChanged());
+    }
+  }
+
+  /**
+   * Allocate a fresh, empty board of <code>width * height</code> closed Cells
+   */
+  @Override
+  void initBoard(int width, int height) {
+    super.initBoard(width, height);
+    board = new byte[width * height];
+    byte closed = (byte) (CellState.FLAG0.ordinal() << STATE_SHIFT);
+    for (int i = 0; i < board.length; i++) {
+      board[i] = closed;
+    }
+    queue = null;
+    views = null;
+    cells = null;
+    cellListeners.clear();
+  }
+
+  // --- INDEX-BASED ACCESS ---
+
+  /**
+   * @return the number of the Cell at <code>index</code> (-1 for a mine)
+   * @see Cell#getNumber()
+   */
+  @Override
+  public int getNumber(int index) {
+    int n = board[index] & NUMBER_MASK;
+    return (n == MINE) ? -1 : n;
+  }
+
+  @Override
+  void setNumber(int index, int number) {
+    board[index] =
+        (byte) ((board[index] & ~NUMBER_MASK) | ((number == -1) ? MINE : number));
+  }
+
+  @Override
+  public boolean isMine(int index) {
+    return (board[index] & NUMBER_MASK) == MINE;
+  }
+
+  /**
+   * @return the CellState of the Cell at <code>index</code>
+   * @see Cell#getCellState()
+   */
+  public CellState getCellState(int index) {
+    return STATES[(board[index] & 0xFF) >>> STATE_SHIFT];
+  }
+
+  void setCellState(int index, CellState state) {
+    CellState from = getCellState(index);
+    counts.update(from, state);
+    stateHash ^= Zobrist.key(index, from) ^ Zobrist.key(index, state);
+    changes.add(index);
+    board[index] = (byte) ((state.ordinal() << STATE_SHIFT) | (board[index] & NUMBER_MASK));
+  }
+
+  /**
+   * Open Cells are those showing a number or a mine
+   */
+  @Override
+  public boolean isOpen(int index) {
+    int state = (board[index] & 0xFF) >>> STATE_SHIFT;
+    return state <= CellState.OPEN8.ordinal() || state >= CellState.MINE1.ordinal();
+  }
+
+  /**
+   * @return the flag state of the Cell at <code>index</code>
+   * @see Cell#getFlagState()
+   */
+  @Override
+  public int getFlagState(int index) {
+    switch (getCellState(index)) {
+      case FLAG1:
+        return 1;
+      case FLAG2:
+        return 2;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * @return the Cell view at <code>index</code>
+   */
+  @Override
+  public Cell getCell(int index) {
+    if (views == null) {
+      views = new Cell[board.length];
+      for (int i = 0; i < views.length; i++) {
+        views[i] = new CellView(i);
+      }
+    }
+    return views[index];
+  }
+
+  /**
+   * Toggle the flag state of the Cell at <code>index</code>
+   *
+   * @see Cell#toggleFlag()
+   */
+  public void toggleFlag(int index) {
+    if (isOpen(index)) {
+      return;
+    }
+    beginChanges();
+    try {
+      switch (getFlagState(index)) {
+        case 0:
+          setCellState(index, CellState.FLAG1);
+          flagChanged();
+          break;
+        case 1:
+          setCellState(index, marking ? CellState.FLAG2 : CellState.FLAG0);
+          flagChanged();
+          break;
+        case 2:
+          setCellState(index, CellState.FLAG0);
+          break;
+      }
+      alertCellListeners(index);
+    } finally {
+      endChanges();
+    }
+  }
+
+  /**
+   * Flag the Cell at <code>index</code>
+   *
+   * @see Cell#setFlag()
+   */
+  public void setFlag(int index) {
+    beginChanges();
+    try {
+      setCellState(index, CellState.FLAG1);
+      alertCellListeners(index);
+      flagChanged();
+    } finally {
+      endChanges();
+    }
+  }
+
+  /**
+   * Open the Cell at <code>index</code>. Behaves exactly like <code>CellImpl.open()</code>, but
+   * zero-regions are opened with a work queue rather than recursion.
+   *
+   * @param index the Cell to open
+   * @param direct whether this is opened by a direct click
+   * @see Cell#open(boolean)
+   */
+  @Override
+  public void open(int index, boolean direct) {
+    if (isOpen(index)) {
+      return;
+    }
+    beginChanges();
+    try {
+      openClosed(index, direct);
+    } finally {
+      endChanges();
+    }
+  }
+
+  private void openClosed(int index, boolean direct) {
+    // Flagged Cells are only ever opened indirectly, to show an incorrect flag
+    if (getFlagState(index) == 1) {
+      if (!direct && !isMine(index)) {
+        setCellState(index, CellState.MINE3);
+        alertCellListeners(index);
+      }
+      return;
+    }
+    if (!started) {
+      start(index);
+    }
+
+    if (isMine(index)) {
+      setCellState(index, direct ? CellState.MINE2 : CellState.MINE1);
+      revealMines();
+      alertCellListeners(index);
+      return;
+    }
+    cascade(index);
+  }
+
+  /**
+   * Open every unopened mine, and show every incorrect flag
+   */
+  void revealMines() {
+    for (int i = 0; i < board.length; i++) {
+      if (isOpen(i)) {
+        continue;
+      }
+      int flagState = getFlagState(i);
+      if (flagState == 1) {
+        if (!isMine(i)) {
+          setCellState(i, CellState.MINE3);
+          alertCellListeners(i);
+        }
+      } else if (isMine(i)) {
+        setCellState(i, CellState.MINE1);
+        alertCellListeners(i);
+      } else if (flagState == 2) {
+        cascade(i);
+      }
+    }
+  }
+
+  /**
+   * Open the non-mine Cell at <code>index</code>, and if it is a zero, keep opening outwards
+   * through every unopened, unflagged neighbour until the zero-region is bounded by numbers
+   */
+  void cascade(int index) {
+    if (queue == null) {
+      queue = new int[board.length];
+    }
+    int head = 0;
+    int tail = 0;
+    setCellState(index, NUM_TO_STATE[getNumber(index)]);
+    queue[tail++] = index;
+
+    // Every Cell is enqueued at most once, as it is opened before being enqueued
+    while (head < tail) {
+      int current = queue[head++];
+      if (getNumber(current) == 0) {
+        for (int k = neighbourTable.start(current); k < neighbourTable.end(current); k++) {
+          int i = neighbourTable.get(k);
+          if (!isOpen(i) && getFlagState(i) != 1) {
+            setCellState(i, NUM_TO_STATE[getNumber(i)]);
+            queue[tail++] = i;
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < tail; i++) {
+      alertCellListeners(queue[i]);
+    }
+  }
+
+  // --- GAME INTERFACE ---
+
+  /**
+   * Cells here are views, so every state change already goes through
+   * <code>setCellState()</code> and is counted there
+   */
+  @Override
+  public void cellStateChanged(Cell cell, CellState from, CellState to) {
+    ;
+  }
+
+  /**
+   * The copy is one <code>byte[]</code> clone plus a few fields. Cell views and listeners are not
+   * copied, and are only created if the copy is asked for them.
+   */
+  @Override
+  public PackedGameImpl fork() {
+    PackedGameImpl copy = new PackedGameImpl(difficulty, firstClickMode);
+    copy.copyFrom(this);
+    return copy;
+  }
+
+  /**
+   * Copy any Game into a PackedGameImpl, as <code>fork()</code> would. The board is read through
+   * the source's BoardView. Games in this package also hand over their clock and any mines still
+   * to be placed; for other Games, the copy is started as long ago as the source says, and its
+   * mines are the ones the source shows.
+   *
+   * @param source the Game to copy
+   * @return an independent copy of <code>source</code>, with no listeners
+   */
+  public static PackedGameImpl copyOf(Game source) {
+    BoardView from = source.getBoardView();
+    byte[] board = new byte[from.width() * from.height()];
+    for (int i = 0; i < board.length; i++) {
+      int number = from.isMine(i) ? MINE : from.number(i);
+      board[i] = (byte) ((from.state(i).ordinal() << STATE_SHIFT) | number);
+    }
+
+    PackedGameImpl copy = new PackedGameImpl(source.getDifficulty(), source.getFirstClickMode());
+    if (source instanceof AbstractGame) {
+      AbstractGame game = (AbstractGame) source;
+      copy.copyBoard(source, board, from.width(), from.height(), game.marking);
+      copy.copyClock(game.pending, game.pendingSeed, game.nanoClock, game.startNanos,
+          game.finishNanos, game.started, game.finished.get());
+      copy.seedSearch = game.seedSearch;
+      copy.guessFree = game.guessFree;
+    } else {
+      copy.copyBoard(source, board, from.width(), from.height(), true);
+      long now = System.nanoTime();
+      long startNanos = now - TimeUnit.MILLISECONDS.toNanos(source.getElapsedMillis());
+      copy.copyClock(false, 0, System::nanoTime, startNanos, now, source.isStarted(),
+          source.getFinished());
+    }
+    return copy;
+  }
+
+  /**
+   * Make this Game a copy of <code>source</code>, as <code>fork()</code> would, reusing this
+   * Game's board if it is the same size. This Game's listeners are kept, but not told. For
+   * searches that play out many positions one after another on the same Game.
+   *
+   * @param source the Game to copy
+   */
+  public void copyFrom(PackedGameImpl source) {
+    byte[] copied = board;
+    if (copied == null || copied.length != source.board.length) {
+      copied = new byte[source.board.length];
+      queue = null;
+      views = null;
+      cells = null;
+    }
+    System.arraycopy(source.board, 0, copied, 0, copied.length);
+    difficulty = source.difficulty;
+    firstClickMode = source.firstClickMode;
+    counts.reset();
+    copyBoard(source, copied, source.width, source.height, source.marking);
+    copyClock(source.pending, source.pendingSeed, source.nanoClock, source.startNanos,
+        source.finishNanos, source.started, source.finished.get());
+    seedSearch = source.seedSearch;
+    guessFree = source.guessFree;
+    changeDepth = 0;
+    if (!changes.isEmpty()) {
+      changes = new ChangeSet();
+    }
+  }
+
+  /**
+   * Deal this Game's closed Cells again, with the mines where <code>mines</code> says, and clear
+   * every flag and mark. Meant for a fork being played out in a search, which must not depend on
+   * where the real mines are. The layout should agree with the open numbers (see LayoutSampler).
+   *
+   * @param mines for each Cell, whether it is to be a mine
+   * @throws IllegalArgumentException if an open Cell would be a mine
+   */
+  public void replaceHiddenMines(boolean[] mines) {
+    int placed = 0;
+    for (int i = 0; i < board.length; i++) {
+      if (mines[i] && isOpen(i)) {
+        throw new IllegalArgumentException("replaceHiddenMines(): Cell " + i + " is open");
+      }
+      placed += mines[i] ? 1 : 0;
+    }
+    beginChanges();
+    try {
+      for (int i = 0; i < board.length; i++) {
+        setNumber(i, mines[i] ? -1 : 0);
+        if (getFlagState(i) != 0) {
+          setCellState(i, CellState.FLAG0);
+        }
+      }
+      numMines = placed;
+      updateCellNumbers();
+      pending = false;
+      guessFree = false;
+      boardId = null;
+    } finally {
+      endChanges();
+    }
+  }
+
+  /**
+   * Make this Game, with its counts reset, a copy of <code>source</code> played on
+   * <code>board</code>
+   */
+  void copyBoard(Game source, byte[] board, int width, int height, boolean marking) {
+    this.board = board;
+    this.width = width;
+    this.height = height;
+    this.marking = marking;
+    numMines = source.getNumMines();
+    neighbourTable = source.getNeighbourTable();
+    stateHash = source.getStateHash();
+    boardId = source.getBoardId();
+    for (int i = 0; i < board.length; i++) {
+      counts.update(CellState.FLAG0, getCellState(i));
+    }
+  }
+
+  /**
+   * Take over the rest of a copied Game's progress
+   */
+  void copyClock(boolean pending, long pendingSeed, LongSupplier nanoClock,
+      long startNanos, long finishNanos, boolean started, int finished) {
+    this.pending = pending;
+    this.pendingSeed = pendingSeed;
+    this.nanoClock = nanoClock;
+    this.startNanos = startNanos;
+    this.finishNanos = finishNanos;
+    this.started = started;
+    this.finished.set(finished);
+    tickedSeconds.set(getElapsedMillis() / 1000);
+  }
+
+  @Override
+  public List<List<Cell>> getCells() {
+    if (cells == null) {
+      cells = new ArrayList<>();
+      for (int y = 0; y < height; y++) {
+        List<Cell> oneRow = new ArrayList<>();
+        for (int x = 0; x < width; x++) {
+          oneRow.add(getCell(indexOf(x, y)));
+        }
+        cells.add(oneRow);
+      }
+    }
+    return cells;
+  }
+
+  /**
+   * @see Cell#toString()
+   */
+  @Override
+  String cellToString(int index) {
+    if (isOpen(index)) {
+      return isMine(index) ? "." : String.valueOf(getNumber(index));
+    }
+    switch (getFlagState(index)) {
+      case 0:
+        return " ";
+      case 1:
+        return "F";
+      case 2:
+        return "?";
+      default:
+        return "*";
+    }
+  }
+
+  /**
+   * Reads straight from the packed board
+   *
+   * @author Namdrib
+   *
+   */
+  private class BoardViewImpl implements BoardView {
+    @Override
+    public int width() {
+      return width;
+    }
+
+    @Override
+    public int height() {
+      return height;
+    }
+
+    @Override
+    public boolean isMine(int index) {
+      return PackedGameImpl.this.isMine(index);
+    }
+
+    @Override
+    public int number(int index) {
+      return getNumber(index);
+    }
+
+    @Override
+    public CellState state(int index) {
+      return getCellState(index);
+    }
+
+    @Override
+    public void forEachMine(IntConsumer action) {
+      for (int i = 0; i < board.length; i++) {
+        if (PackedGameImpl.this.isMine(i)) {
+          action.accept(i);
+        }
+      }
+    }
+
+    @Override
+    public void forEachOpen(IntConsumer action) {
+      for (int i = 0; i < board.length; i++) {
+        if (isOpen(i)) {
+          action.accept(i);
+        }
+      }
+    }
+  }
+
+  /**
+   * A Cell that holds nothing but its index. Every read and write goes through to the board.
+   *
+   * @author Namdrib
+   *
+   */
+  private class CellView implements Cell {
+    final int index;
+
+    CellView(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void addListener(CellListener cl) {
+      cellListeners.computeIfAbsent(index, k -> new HashSet<>()).add(cl);
+    }
+
+    @Override
+    public void deleteListener(CellListener cl) {
+      Set<CellListener> cls = cellListeners.get(index);
+      if (cls != null) {
+        cls.remove(cl);
+      }
+    }
+
+    @Override
+    public void setNumber(int number) {
+      PackedGameImpl.this.setNumber(index, number);
+      alertCellListeners(index);
+    }
+
+    @Override
+    public int getNumber() {
+      return PackedGameImpl.this.getNumber(index);
+    }
+
+    @Override
+    public boolean isMine() {
+      return PackedGameImpl.this.isMine(index);
+    }
+
+    /**
+     * A view's position is fixed by its index, so it can not be moved
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setPoint(Point point) {
+      throw new UnsupportedOperationException("PackedGameImpl Cells cannot be moved");
+    }
+
+    @Override
+    public Point getPoint() {
+      return new Point(index % width, index / width);
+    }
+
+    @Override
+    public int getIndex() {
+      return index;
+    }
+
+    @Override
+    public Game getGame() {
+      return PackedGameImpl.this;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return PackedGameImpl.this.isOpen(index);
+    }
+
+    @Override
+    public int getFlagState() {
+      return PackedGameImpl.this.getFlagState(index);
+    }
+
+    @Override
+    public CellState getCellState() {
+      return PackedGameImpl.this.getCellState(index);
+    }
+
+    /**
+     * Marking is shared by the whole board
+     */
+    @Override
+    public void setMarking(boolean marking) {
+      PackedGameImpl.this.marking = marking;
+    }
+
+    @Override
+    public void toggleFlag() {
+      PackedGameImpl.this.toggleFlag(index);
+    }
+
+    @Override
+    public void setFlag() {
+      PackedGameImpl.this.setFlag(index);
+    }
+
+    @Override
+    public void open(boolean direct) {
+      PackedGameImpl.this.open(index, direct);
+    }
+
+    @Override
+    public String toString() {
+      return cellToString(index);
+    }
+  }
+}
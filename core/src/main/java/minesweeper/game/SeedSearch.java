@@ -0,0 +1,25 @@
+package minesweeper.game;
+
+import java.util.OptionalLong;
+
+/**
+ * Finds the seed of a NO_GUESS board once the first click is known. Games with the NO_GUESS first
+ * click mode place their mines from the seed this returns, as an OPENING game would. The search
+ * itself (which needs a solver) is supplied by whoever creates the Game.
+ *
+ * @author Namdrib
+ *
+ */
+@FunctionalInterface
+public interface SeedSearch {
+  /**
+   * @param width board width, already clamped
+   * @param height board height, already clamped
+   * @param numMines mine count, already clamped
+   * @param seed the board's seed
+   * @param first index of the first Cell opened
+   * @return a seed for which an OPENING board, first opened at <code>first</code>, can be won
+   *         without guessing, or nothing if none was found
+   */
+  public OptionalLong find(int width, int height, int numMines, long seed, int first);
+}
@@ -0,0 +1,87 @@
+package minesweeper.game;
+
+import minesweeper.cell.Cell.CellState;
+
+/**
+ * Running totals of the Cell states that decide how a Game is going, kept up to date one
+ * transition at a time so that win/lose detection and the remaining mine count never need to
+ * look at the whole board.
+ *
+ * @author Namdrib
+ *
+ */
+public class StateCounts {
+  int openedSafe;
+  int exploded;
+  int flags;
+
+  public StateCounts() {
+    reset();
+  }
+
+  public void reset() {
+    openedSafe = 0;
+    exploded = 0;
+    flags = 0;
+  }
+
+  /**
+   * Record a single Cell going from one state to another
+   *
+   * @param from the Cell's previous state
+   * @param to the Cell's new state
+   */
+  public void update(CellState from, CellState to) {
+    if (from == to) {
+      return;
+    }
+    count(from, -1);
+    count(to, 1);
+  }
+
+  private void count(CellState state, int delta) {
+    switch (state) {
+      case OPEN0:
+      case OPEN1:
+      case OPEN2:
+      case OPEN3:
+      case OPEN4:
+      case OPEN5:
+      case OPEN6:
+      case OPEN7:
+      case OPEN8:
+        openedSafe += delta;
+        break;
+      case MINE1:
+      case MINE2:
+        exploded += delta;
+        break;
+      case FLAG1:
+        flags += delta;
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * @return the number of opened Cells without a mine (not including incorrect flags)
+   */
+  public int getOpenedSafe() {
+    return openedSafe;
+  }
+
+  /**
+   * @return the number of opened mines
+   */
+  public int getExploded() {
+    return exploded;
+  }
+
+  /**
+   * @return the number of flags placed
+   */
+  public int getFlags() {
+    return flags;
+  }
+}
@@ -0,0 +1,52 @@
+package minesweeper.game;
+
+import minesweeper.cell.Cell.CellState;
+
+/**
+ * Zobrist keys for what a solver can see of a board: a random-looking 64-bit key for each Cell
+ * index and CellState, so that a board's hash is the XOR of one key per Cell and can be updated
+ * in constant time as each Cell changes.
+ * <p>
+ * Keys are computed on demand by mixing the index and state, so any board size is covered
+ * without a table. Flags and marks are the player's guesses, so they have the same key as a
+ * plain closed Cell. Flagging does not change the hash.
+ *
+ * @author Namdrib
+ *
+ */
+public final class Zobrist {
+
+  // Prevents instantiation
+  private Zobrist() {}
+
+  /**
+   * @return the key for the Cell at <code>index</code> showing <code>state</code>
+   */
+  public static long key(int index, CellState state) {
+    int s = (state == CellState.FLAG1 || state == CellState.FLAG2) ? CellState.FLAG0.ordinal()
+        : state.ordinal();
+    return mix(((long) index << 4) | s);
+  }
+
+  /**
+   * @return the hash of a board of <code>width * height</code> closed Cells. Boards of different
+   *         shapes start from different hashes
+   */
+  public static long closed(int width, int height) {
+    long hash = mix(((long) width << 32) | height);
+    for (int i = 0; i < width * height; i++) {
+      hash ^= key(i, CellState.FLAG0);
+    }
+    return hash;
+  }
+
+  /**
+   * The SplitMix64 finaliser, offset so that 0 does not map to 0
+   */
+  static long mix(long z) {
+    z += 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -6,9 +6,8 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import minesweeper.cell.Cell;
+import minesweeper.game.BoardView;
 import minesweeper.game.Game;
 
 public class GameReaderWriter implements GameIO {
@@ -93,7 +92,6 @@ public class GameReaderWriter implements GameIO {
         }
 
         String[] coords = line.split(" ");
-        System.out.println("Got " + Arrays.toString(coords) + " on line " + lineNumber);
         int xCoord, yCoord;
         try {
           xCoord = Integer.parseInt(coords[0]);
@@ -121,23 +119,17 @@ public class GameReaderWriter implements GameIO {
 
   @Override
   public void writeMines(Writer w, Game g) throws IOException {
-    List<List<Cell>> cells = g.getCells();
-    int x = cells.get(0).size();
-    int y = cells.size();
+    BoardView view = g.getBoardView();
+    int x = view.width();
+    int y = view.height();
     w.write("# x y\n" + x + " " + y + "\n");
 
     w.write("# n\n" + g.getNumMines() + "\n");
 
     w.write("# mine co-ords\n");
-    for (List<Cell> row : cells) {
-      for (Cell cell : row) {
-        if (cell.isMine()) {
-          int xCoord = (int) cell.getPoint().getX();
-          int yCoord = (int) cell.getPoint().getY();
-          w.write(xCoord + " " + yCoord + "\n");
-        }
-      }
-    }
+    StringBuilder coords = new StringBuilder();
+    view.forEachMine(i -> coords.append(i % x).append(' ').append(i / x).append('\n'));
+    w.write(coords.toString());
   }
 
   @Override
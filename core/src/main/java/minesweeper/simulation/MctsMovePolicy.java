@@ -0,0 +1,350 @@
+package minesweeper.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import minesweeper.cell.Cell;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.game.BoardView;
+import minesweeper.game.Game;
+import minesweeper.game.NeighbourTable;
+import minesweeper.game.PackedGameImpl;
+import minesweeper.solver.LayoutSampler;
+import minesweeper.solver.MatrixSolver;
+import minesweeper.solver.ProbabilityEngine;
+import minesweeper.solver.Solver;
+
+/**
+ * Chooses guesses by Monte Carlo tree search. Cells a MatrixSolver proves safe are opened
+ * straight away; only when there are none does the search run, for a fixed time (and optionally
+ * a fixed number of rollouts) per move.
+ * <p>
+ * Each rollout draws a mine layout that fits what the board shows (see LayoutSampler), and plays
+ * it out on a fork of the game with those mines, so the search never sees the real ones. Safe
+ * Cells are opened as they are proved. At each guess still inside the tree, a move is chosen by
+ * UCB1 among the few Cells least likely to be mines. Past the tree, guesses are random, as in
+ * SolverMovePolicy. A rollout scores 1 if it wins the game, and the move played is the one tried
+ * most often.
+ * <p>
+ * Tree nodes are keyed by the board's Zobrist state hash (see Game.getStateHash()), so positions
+ * reached by different orders of moves share statistics, and the tree is kept from one move to
+ * the next. Rollouts run on a ForkJoinPool, one task per thread, each with its own Random drawn
+ * from the one the caller passes in. Nodes count a selection as a loss until its result comes in,
+ * which steers other threads towards other moves meanwhile.
+ * <p>
+ * <code>play()</code> drives any Game through its Cells, the same as a player would, so the
+ * policy can play a live game as well as a headless one.
+ *
+ * @author Namdrib
+ *
+ */
+public class MctsMovePolicy implements MovePolicy {
+  // Moves considered at each guess, the least likely to be mines
+  static final int MAX_CHILDREN = 12;
+  // Once the tree is this big, rollouts stop adding to it
+  static final int MAX_NODES = 200000;
+  // How much UCB1 favours less tried moves, for scores between 0 and 1
+  static final double EXPLORATION = 0.7;
+
+  long budgetNanos;
+  long maxRollouts;
+  int parallelism;
+  ForkJoinPool pool;
+  final LongAdder rollouts;
+  long lastRollouts;
+
+  // The game being played, and a solver listening to it
+  Game game;
+  MatrixSolver solver;
+  final Map<Long, Node> tree;
+
+  /**
+   * Search for one second per guess
+   */
+  public MctsMovePolicy() {
+    this(1000);
+  }
+
+  /**
+   * @param millisPerMove how long to search for each guess
+   */
+  public MctsMovePolicy(long millisPerMove) {
+    budgetNanos = TimeUnit.MILLISECONDS.toNanos(millisPerMove);
+    maxRollouts = Long.MAX_VALUE;
+    rollouts = new LongAdder();
+    tree = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @param maxRollouts stop searching each guess after this many rollouts, even if there is time
+   *        left
+   */
+  public void setMaxRollouts(long maxRollouts) {
+    this.maxRollouts = maxRollouts;
+  }
+
+  /**
+   * @param parallelism how many rollouts to run at once. Defaults to the pool's parallelism
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * @param pool where to run the rollouts. Defaults to the pool the caller is running in, or the
+   *        common pool
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * @return the number of rollouts played by this policy so far
+   */
+  public long getRollouts() {
+    return rollouts.sum();
+  }
+
+  /**
+   * @return the number of rollouts played for the last guess
+   */
+  public long getLastRollouts() {
+    return lastRollouts;
+  }
+
+  /**
+   * Play <code>game</code> until it is won, lost, or no move is left. Cells are opened (and any
+   * flags on them cleared) through the Game's Cells, on the calling thread
+   *
+   * @param game the game to play, headless or live
+   * @param random source of randomness for this game
+   */
+  public void play(Game game, Random random) {
+    while (game.getFinished() == 0) {
+      int move = nextMove(game, random);
+      if (move < 0) {
+        return;
+      }
+      Cell cell = game.getCell(move);
+      while (cell.getFlagState() != 0) {
+        cell.toggleFlag();
+      }
+      cell.open(true);
+    }
+  }
+
+  @Override
+  public int nextMove(Game game, Random random) {
+    if (this.game != game) {
+      this.game = game;
+      solver = new MatrixSolver(game);
+      game.addListener(solver);
+      tree.clear();
+    }
+    // Wherever the first click goes, it is safe or it cannot be helped. Corners open up most
+    if (!game.isStarted()) {
+      return 0;
+    }
+    int move = solver.nextSafe();
+    return (move >= 0) ? move : search(random);
+  }
+
+  /**
+   * Search from the game as it is now
+   *
+   * @return the move tried most often, or -1 if there is nothing to open
+   */
+  int search(Random random) {
+    PackedGameImpl root = PackedGameImpl.copyOf(game);
+    ForkJoinPool p = (pool != null) ? pool
+        : ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+    if (tree.size() >= MAX_NODES) {
+      tree.clear();
+    }
+    Node rootNode = tree.computeIfAbsent(root.getStateHash(), k -> expand(root, p));
+    if (rootNode.moves.length <= 1) {
+      return (rootNode.moves.length == 0) ? -1 : rootNode.moves[0];
+    }
+    LayoutSampler sampler = new LayoutSampler(root);
+
+    long before = rollouts.sum();
+    long deadline = System.nanoTime() + budgetNanos;
+    AtomicLong started = new AtomicLong();
+    int workers = (parallelism > 0) ? parallelism : p.getParallelism();
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    for (int w = 0; w < workers; w++) {
+      Random workerRandom = new Random(random.nextLong());
+      tasks.add(p.submit(() -> {
+        boolean[] mines = new boolean[sampler.size()];
+        while (started.getAndIncrement() < maxRollouts && System.nanoTime() < deadline) {
+          rollout(root, sampler, workerRandom, mines, p);
+        }
+      }));
+    }
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+    lastRollouts = rollouts.sum() - before;
+    return rootNode.moves[rootNode.best()];
+  }
+
+  /**
+   * Play one layout out from the root, and score every tree move on the way
+   */
+  void rollout(PackedGameImpl root, LayoutSampler sampler, Random random, boolean[] mines,
+      ForkJoinPool p) {
+    sampler.sample(random, mines);
+    PackedGameImpl sim = root.fork();
+    sim.replaceHiddenMines(mines);
+    Solver simSolver = new Solver(sim);
+    sim.addListener(simSolver);
+
+    List<Node> path = new ArrayList<>();
+    int[] chosen = new int[16];
+    boolean inTree = true;
+    while (sim.getFinished() == 0) {
+      int move = simSolver.nextSafe();
+      if (move < 0 && inTree) {
+        Node node = tree.get(sim.getStateHash());
+        if (node == null) {
+          // Only one new node per rollout
+          inTree = false;
+          if (tree.size() < MAX_NODES) {
+            Node fresh = expand(sim, p);
+            node = tree.putIfAbsent(sim.getStateHash(), fresh);
+            node = (node == null) ? fresh : node;
+          }
+        }
+        if (node != null && node.moves.length > 0) {
+          int c = node.select();
+          if (path.size() == chosen.length) {
+            chosen = Arrays.copyOf(chosen, 2 * chosen.length);
+          }
+          chosen[path.size()] = c;
+          path.add(node);
+          move = node.moves[c];
+        }
+      }
+      if (move < 0) {
+        move = SolverMovePolicy.guess(sim.getBoardView(), simSolver, random);
+      }
+      if (move < 0) {
+        break;
+      }
+      sim.open(move, true);
+    }
+
+    double score = (sim.getFinished() == 1) ? 1 : 0;
+    for (int i = 0; i < path.size(); i++) {
+      path.get(i).update(chosen[i], score);
+    }
+    rollouts.increment();
+  }
+
+  /**
+   * @return a node for the position <code>state</code> is in, whose moves are the closed Cells
+   *         least likely to be mines. If any Cell is certainly safe, it is the only move
+   */
+  static Node expand(PackedGameImpl state, ForkJoinPool p) {
+    ProbabilityEngine engine = new ProbabilityEngine(state, p);
+    // Rollout positions are seldom seen again outside this tree
+    engine.setResultCache(null);
+    double[] probabilities = engine.compute();
+    BoardView view = state.getBoardView();
+    NeighbourTable table = state.getNeighbourTable();
+
+    List<Integer> closed = new ArrayList<>();
+    int[] closedAround = new int[probabilities.length];
+    for (int i = 0; i < probabilities.length; i++) {
+      if (!isClosed(view.state(i)) || !(probabilities[i] < 1)) {
+        continue;
+      }
+      if (probabilities[i] == 0) {
+        return new Node(new int[] {i});
+      }
+      closed.add(i);
+      for (int k = table.start(i); k < table.end(i); k++) {
+        closedAround[i] += isClosed(view.state(table.get(k))) ? 1 : 0;
+      }
+    }
+    // Safest first. Among equals, Cells with fewer closed neighbours tell more when opened
+    closed.sort((a, b) -> (probabilities[a] != probabilities[b])
+        ? Double.compare(probabilities[a], probabilities[b])
+        : Integer.compare(closedAround[a], closedAround[b]));
+    int[] moves = new int[Math.min(closed.size(), MAX_CHILDREN)];
+    for (int m = 0; m < moves.length; m++) {
+      moves[m] = closed.get(m);
+    }
+    return new Node(moves);
+  }
+
+  static boolean isClosed(CellState state) {
+    return state == CellState.FLAG0 || state == CellState.FLAG1 || state == CellState.FLAG2;
+  }
+
+  /**
+   * What the search knows about one position: the moves it considers, and how each has done
+   *
+   * @author Namdrib
+   *
+   */
+  static final class Node {
+    final int[] moves;
+    final int[] visits;
+    final double[] wins;
+    int total;
+
+    Node(int[] moves) {
+      this.moves = moves;
+      visits = new int[moves.length];
+      wins = new double[moves.length];
+    }
+
+    /**
+     * Choose a move by UCB1, trying each once first, and count it as tried straight away
+     *
+     * @return the position of the move in <code>moves</code>
+     */
+    synchronized int select() {
+      int best = 0;
+      double bestScore = Double.NEGATIVE_INFINITY;
+      double logTotal = Math.log(total + 1);
+      for (int c = 0; c < moves.length; c++) {
+        double score = (visits[c] == 0) ? Double.POSITIVE_INFINITY
+            : wins[c] / visits[c] + EXPLORATION * Math.sqrt(logTotal / visits[c]);
+        if (score > bestScore) {
+          best = c;
+          bestScore = score;
+        }
+      }
+      visits[best]++;
+      total++;
+      return best;
+    }
+
+    synchronized void update(int c, double score) {
+      wins[c] += score;
+    }
+
+    /**
+     * @return the position of the move tried most often. Ties go to the safer move
+     */
+    synchronized int best() {
+      int best = 0;
+      for (int c = 1; c < moves.length; c++) {
+        if (visits[c] > visits[best]) {
+          best = c;
+        }
+      }
+      return best;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package minesweeper.simulation;
+
+import java.util.Random;
+import minesweeper.game.Game;
+
+/**
+ * Decides what a simulated player does next. A policy may flag Cells itself, but opening is left
+ * to the Simulation so that every game is played the same way.
+ *
+ * @author Namdrib
+ *
+ */
+public interface MovePolicy {
+  /**
+   * Choose the next Cell to open. The game is not finished when this is called.
+   *
+   * @param game the game being played
+   * @param random source of randomness for this game only, so that games can be replayed
+   * @return the index of a closed, unflagged Cell to open, or -1 to give up
+   */
+  public int nextMove(Game game, Random random);
+}
@@ -0,0 +1,40 @@
+package minesweeper.simulation;
+
+import java.util.Random;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.game.BoardView;
+import minesweeper.game.Game;
+
+/**
+ * Opens a Cell chosen uniformly at random from those that are still closed. A baseline to compare
+ * real policies against.
+ *
+ * @author Namdrib
+ *
+ */
+public class RandomMovePolicy implements MovePolicy {
+
+  @Override
+  public int nextMove(Game game, Random random) {
+    BoardView view = game.getBoardView();
+    int size = view.width() * view.height();
+
+    // Pick the k-th closed Cell, without collecting them all
+    int closed = 0;
+    for (int i = 0; i < size; i++) {
+      if (view.state(i) == CellState.FLAG0) {
+        closed++;
+      }
+    }
+    if (closed == 0) {
+      return -1;
+    }
+    int k = random.nextInt(closed);
+    for (int i = 0; i < size; i++) {
+      if (view.state(i) == CellState.FLAG0 && k-- == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
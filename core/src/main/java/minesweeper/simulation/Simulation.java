@@ -0,0 +1,169 @@
+package minesweeper.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import minesweeper.game.BoardId;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.PackedGameImpl;
+import minesweeper.game.SeedSearch;
+import minesweeper.solver.NoGuessGenerator;
+
+/**
+ * Plays many games headlessly, spread across a ForkJoinPool. Games are PackedGameImpls with no
+ * listeners attached, each driven by its own MovePolicy until it is won, lost or given up. Moves
+ * go straight to the engine by index, so no Cell views are made.
+ * <p>
+ * One task is submitted per thread, and each takes the next game to play until there are none
+ * left.
+ * <p>
+ * Game <code>i</code> is played on the board with the base board ID's dimensions and a seed
+ * derived from the base seed and <code>i</code>, and its policy gets a Random derived the same
+ * way. So a simulation gives the same results every time, however many threads it runs on. For
+ * the same reason, NO_GUESS boards are searched for without a time limit.
+ *
+ * @author Namdrib
+ *
+ */
+public class Simulation {
+  static final SeedSearch NO_GUESS_SEARCH = NoGuessGenerator.within(Long.MAX_VALUE);
+
+  BoardId board;
+  int games;
+  Supplier<MovePolicy> policies;
+  FirstClickMode firstClickMode;
+  int parallelism;
+
+  /**
+   * @param board the dimensions, mine count and base seed of every game
+   * @param games how many games to play
+   */
+  public Simulation(BoardId board, int games) {
+    this.board = board;
+    this.games = games;
+    policies = RandomMovePolicy::new;
+    firstClickMode = FirstClickMode.CLASSIC;
+    parallelism = Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * @param policies makes a fresh policy for each game. Defaults to RandomMovePolicy
+   */
+  public void setPolicies(Supplier<MovePolicy> policies) {
+    this.policies = policies;
+  }
+
+  public void setFirstClickMode(FirstClickMode firstClickMode) {
+    this.firstClickMode = firstClickMode;
+  }
+
+  /**
+   * @param parallelism number of threads to play on. Defaults to one per core
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Play every game and wait for them to finish
+   *
+   * @return what happened in each game
+   */
+  public SimulationResult run() {
+    SimulationResult result = new SimulationResult(games);
+    long start = System.nanoTime();
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    AtomicInteger next = new AtomicInteger();
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    for (int w = 0; w < parallelism; w++) {
+      tasks.add(pool.submit(() -> {
+        for (int i = next.getAndIncrement(); i < games; i = next.getAndIncrement()) {
+          play(i, result);
+        }
+      }));
+    }
+    try {
+      for (ForkJoinTask<?> task : tasks) {
+        task.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Simulation.run(): interrupted", ex);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("Simulation.run(): a game failed", ex.getCause());
+    } finally {
+      pool.shutdown();
+    }
+    result.wallNanos = System.nanoTime() - start;
+    return result;
+  }
+
+  /**
+   * Play game <code>i</code> to the end, and record it in <code>result</code>
+   */
+  void play(int i, SimulationResult result) {
+    long seed = seedOf(i);
+    long start = System.nanoTime();
+    PackedGameImpl game = new PackedGameImpl(board.getDifficulty(), board.getWidth(),
+        board.getHeight(), board.getNumMines(), seed, firstClickMode);
+    game.setSeedSearch(NO_GUESS_SEARCH);
+    MovePolicy policy = policies.get();
+    Random random = new Random(mix(seed));
+
+    int moves = 0;
+    while (game.getFinished() == 0) {
+      int move = policy.nextMove(game, random);
+      if (move < 0) {
+        break;
+      }
+      game.open(move, true);
+      moves++;
+    }
+    result.record(i, game.getFinished(), moves, System.nanoTime() - start);
+  }
+
+  /**
+   * @return the seed of the board for game <code>i</code>
+   */
+  long seedOf(int i) {
+    return mix(board.getSeed() + i * 0x9E3779B97F4A7C15L);
+  }
+
+  /**
+   * The SplitMix64 finaliser, so that nearby inputs give unrelated seeds
+   */
+  static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Usage:
+   * <code>Simulation [board ID] [games] [threads] [random|solver|mcts] [ms per guess]</code>, e.g.
+   * <code>Simulation E-1 100000 8 solver</code>
+   */
+  public static void main(String[] args) {
+    BoardId board = BoardId.parse((args.length > 0) ? args[0] : "E-1");
+    int games = (args.length > 1) ? Integer.parseInt(args[1]) : 10000;
+    Simulation simulation = new Simulation(board, games);
+    if (args.length > 2) {
+      simulation.setParallelism(Integer.parseInt(args[2]));
+    }
+    if (args.length > 3 && args[3].equals("solver")) {
+      simulation.setPolicies(SolverMovePolicy::new);
+      simulation.setFirstClickMode(FirstClickMode.OPENING);
+    }
+    if (args.length > 3 && args[3].equals("mcts")) {
+      long millis = (args.length > 4) ? Long.parseLong(args[4]) : 100;
+      simulation.setPolicies(() -> new MctsMovePolicy(millis));
+      simulation.setFirstClickMode(FirstClickMode.OPENING);
+    }
+    System.out.println(board + ": " + simulation.run());
+  }
+}
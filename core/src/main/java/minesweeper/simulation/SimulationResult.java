@@ -0,0 +1,112 @@
+package minesweeper.simulation;
+
+import java.util.Arrays;
+
+/**
+ * What happened in each game of a Simulation, and totals over all of them. Each game writes only
+ * its own slot, so games on different threads never contend.
+ *
+ * @author Namdrib
+ *
+ */
+public class SimulationResult {
+  // Indexed by game. Outcomes use the codes of Game.getFinished(), 0 if the policy gave up
+  final int[] outcomes;
+  final int[] moves;
+  final long[] nanos;
+  long wallNanos;
+
+  SimulationResult(int games) {
+    outcomes = new int[games];
+    moves = new int[games];
+    nanos = new long[games];
+  }
+
+  void record(int game, int outcome, int numMoves, long gameNanos) {
+    outcomes[game] = outcome;
+    moves[game] = numMoves;
+    nanos[game] = gameNanos;
+  }
+
+  public int getGames() {
+    return outcomes.length;
+  }
+
+  public int getWins() {
+    return count(1);
+  }
+
+  public int getLosses() {
+    return count(2);
+  }
+
+  /**
+   * @return the number of games the policy gave up on
+   */
+  public int getUnfinished() {
+    return count(0);
+  }
+
+  private int count(int outcome) {
+    int n = 0;
+    for (int o : outcomes) {
+      if (o == outcome) {
+        n++;
+      }
+    }
+    return n;
+  }
+
+  /**
+   * @return the fraction of games won, between 0 and 1
+   */
+  public double getWinRate() {
+    return (outcomes.length == 0) ? 0 : (double) getWins() / outcomes.length;
+  }
+
+  /**
+   * @return games played per second of wall-clock time
+   */
+  public double getGamesPerSecond() {
+    return (wallNanos == 0) ? 0 : outcomes.length * 1e9 / wallNanos;
+  }
+
+  /**
+   * @param game index of the game
+   * @return the outcome of one game, as a <code>Game.getFinished()</code> code
+   */
+  public int getOutcome(int game) {
+    return outcomes[game];
+  }
+
+  /**
+   * @param game index of the game
+   * @return the number of Cells opened in one game
+   */
+  public int getMoves(int game) {
+    return moves[game];
+  }
+
+  /**
+   * @param p between 0 and 1, e.g. 0.99 for the 99th percentile
+   * @return the <code>p</code>-th percentile of the time taken to play a game, in nanoseconds
+   */
+  public long getNanosPercentile(double p) {
+    if (nanos.length == 0) {
+      return 0;
+    }
+    long[] sorted = nanos.clone();
+    Arrays.sort(sorted);
+    return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))];
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d games, %.0f games/s, %.2f%% won (%d won, %d lost, %d given up), "
+            + "game time p50 %.1f us, p90 %.1f us, p99 %.1f us",
+        getGames(), getGamesPerSecond(), getWinRate() * 100, getWins(), getLosses(),
+        getUnfinished(), getNanosPercentile(0.5) / 1e3, getNanosPercentile(0.9) / 1e3,
+        getNanosPercentile(0.99) / 1e3);
+  }
+}
@@ -0,0 +1,53 @@
+package minesweeper.simulation;
+
+import java.util.Random;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.game.BoardView;
+import minesweeper.game.Game;
+import minesweeper.solver.Solver;
+
+/**
+ * Opens Cells the Solver has proved safe, and only guesses when there are none, choosing
+ * uniformly from the closed Cells not known to be mines. The Solver listens to the Game, so it
+ * only looks again at what each move changed.
+ *
+ * @author Namdrib
+ *
+ */
+public class SolverMovePolicy implements MovePolicy {
+  Solver solver;
+
+  @Override
+  public int nextMove(Game game, Random random) {
+    if (solver == null) {
+      solver = new Solver(game);
+      game.addListener(solver);
+    }
+    int move = solver.nextSafe();
+    return (move >= 0) ? move : guess(game.getBoardView(), solver, random);
+  }
+
+  /**
+   * @return a closed Cell chosen uniformly from those <code>solver</code> does not know to be
+   *         mines, or -1 if there are none
+   */
+  static int guess(BoardView view, Solver solver, Random random) {
+    int size = view.width() * view.height();
+    int candidates = 0;
+    for (int i = 0; i < size; i++) {
+      if (view.state(i) == CellState.FLAG0 && !solver.isMine(i)) {
+        candidates++;
+      }
+    }
+    if (candidates == 0) {
+      return -1;
+    }
+    int k = random.nextInt(candidates);
+    for (int i = 0; i < size; i++) {
+      if (view.state(i) == CellState.FLAG0 && !solver.isMine(i) && k-- == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
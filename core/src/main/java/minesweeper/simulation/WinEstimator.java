@@ -0,0 +1,285 @@
+package minesweeper.simulation;
+
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import minesweeper.game.BoardView;
+import minesweeper.game.ChangeSet;
+import minesweeper.game.Game;
+import minesweeper.game.GameListener;
+import minesweeper.game.PackedGameImpl;
+import minesweeper.solver.LayoutSampler;
+import minesweeper.solver.Solver;
+
+/**
+ * Estimates, in the background, the chance of winning the game being watched from where it is
+ * now. Each rollout draws a mine layout that fits the board (see LayoutSampler) and plays it out
+ * the way SolverMovePolicy would: opening every Cell the Solver proves safe, and guessing at
+ * random among the rest. The share of rollouts won is reported after every batch, so the estimate
+ * sharpens while the player thinks.
+ * <p>
+ * Add the estimator to a Game by <code>watch()</code>. Whenever the board changes, the Game is
+ * forked on the thread that tells its listeners (cheap: one byte per Cell), and the work on the
+ * old position is dropped. Everything else happens on the estimator's own thread, so the event
+ * thread never waits for it. Flags and marks do not change what the board shows, so they do not
+ * restart the estimate.
+ * <p>
+ * Rollouts reuse one Game, one Solver and one layout for the whole estimate, so fast play does
+ * not turn into garbage collection. Nothing is estimated before the first click.
+ *
+ * @author Namdrib
+ *
+ */
+public class WinEstimator implements GameListener, AutoCloseable {
+  // Rollouts between reports
+  static final int BATCH = 200;
+
+  final Consumer<Estimate> listener;
+  final ExecutorService worker;
+  // Bumped for every new position, so work on older ones stops
+  final AtomicLong generation;
+  Executor callbackExecutor;
+  int maxRollouts;
+  long seed;
+
+  Game game;
+  long watchedHash;
+  Future<?> running;
+
+  /**
+   * @param listener told of each estimate, by default on the estimator's thread
+   */
+  public WinEstimator(Consumer<Estimate> listener) {
+    this.listener = listener;
+    generation = new AtomicLong();
+    callbackExecutor = Runnable::run;
+    maxRollouts = 20000;
+    seed = System.nanoTime();
+    worker = Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "WinEstimator");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * @param callbackExecutor runs each report to the listener, e.g.
+   *        <code>SwingUtilities::invokeLater</code>
+   */
+  public void setCallbackExecutor(Executor callbackExecutor) {
+    this.callbackExecutor = callbackExecutor;
+  }
+
+  /**
+   * @param maxRollouts stop estimating a position after this many rollouts
+   */
+  public void setMaxRollouts(int maxRollouts) {
+    this.maxRollouts = maxRollouts;
+  }
+
+  /**
+   * @param seed seeds the rollouts of every position, so estimates can be repeated
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * Stop watching the last Game, if any, and start estimating <code>game</code>
+   *
+   * @param game the Game to watch, or <code>null</code> to watch nothing
+   */
+  public synchronized void watch(Game game) {
+    if (this.game != null) {
+      this.game.removeListener(this);
+    }
+    this.game = game;
+    generation.incrementAndGet();
+    running = null;
+    if (game != null) {
+      game.addListener(this);
+      refresh();
+    }
+  }
+
+  /**
+   * Start again if the board shows something new
+   */
+  synchronized void refresh() {
+    if (game == null || !game.isStarted()) {
+      return;
+    }
+    long hash = game.getStateHash();
+    if (running != null && hash == watchedHash && game.getFinished() == 0) {
+      return;
+    }
+    watchedHash = hash;
+    long current = generation.incrementAndGet();
+    if (running != null) {
+      running.cancel(false);
+    }
+
+    int finished = game.getFinished();
+    if (finished != 0) {
+      running = null;
+      report(current, new Estimate((finished == 1) ? 1 : 0, 0, hash));
+      return;
+    }
+    PackedGameImpl root = PackedGameImpl.copyOf(game);
+    running = worker.submit(() -> estimate(root, current, hash));
+  }
+
+  /**
+   * Play rollouts from <code>root</code> until there are enough, or the board has moved on
+   */
+  void estimate(PackedGameImpl root, long current, long hash) {
+    LayoutSampler sampler;
+    try {
+      sampler = new LayoutSampler(root);
+    } catch (IllegalStateException ex) {
+      // Nothing fits, as when the game has been lost
+      return;
+    }
+    PackedGameImpl sim = root.fork();
+    Solver solver = new Solver(sim);
+    sim.addListener(solver);
+    boolean[] mines = new boolean[sampler.size()];
+    Random random = new Random(seed ^ hash);
+
+    int wins = 0;
+    for (int n = 1; n <= maxRollouts && generation.get() == current; n++) {
+      sampler.sample(random, mines);
+      sim.copyFrom(root);
+      sim.replaceHiddenMines(mines);
+      solver.reset();
+      if (playOut(sim, solver, random)) {
+        wins++;
+      }
+      if (n % BATCH == 0 || n == maxRollouts) {
+        report(current, new Estimate((double) wins / n, n, hash));
+      }
+    }
+  }
+
+  /**
+   * Play <code>sim</code> to the end as SolverMovePolicy would
+   *
+   * @return <code>true</code> if it was won
+   */
+  static boolean playOut(PackedGameImpl sim, Solver solver, Random random) {
+    BoardView view = sim.getBoardView();
+    while (sim.getFinished() == 0) {
+      int move = solver.nextSafe();
+      if (move < 0) {
+        move = SolverMovePolicy.guess(view, solver, random);
+      }
+      if (move < 0) {
+        break;
+      }
+      sim.open(move, true);
+    }
+    return sim.getFinished() == 1;
+  }
+
+  /**
+   * Hand <code>estimate</code> to the listener, unless the board has moved on by then
+   */
+  void report(long current, Estimate estimate) {
+    callbackExecutor.execute(() -> {
+      if (generation.get() == current) {
+        listener.accept(estimate);
+      }
+    });
+  }
+
+  /**
+   * Stop watching, and stop the estimator's thread
+   */
+  @Override
+  public void close() {
+    watch(null);
+    worker.shutdownNow();
+  }
+
+  @Override
+  public void cellsChanged(ChangeSet changes) {
+    refresh();
+  }
+
+  @Override
+  public void gameLose() {
+    refresh();
+  }
+
+  @Override
+  public void gameWin() {
+    refresh();
+  }
+
+  @Override
+  public void gameTick() {
+    ;
+  }
+
+  @Override
+  public void flagChanged() {
+    ;
+  }
+
+  /**
+   * One report: the chance of winning from one position, and how sure it is
+   *
+   * @author Namdrib
+   *
+   */
+  public static final class Estimate {
+    final double probability;
+    final int rollouts;
+    final long stateHash;
+
+    Estimate(double probability, int rollouts, long stateHash) {
+      this.probability = probability;
+      this.rollouts = rollouts;
+      this.stateHash = stateHash;
+    }
+
+    /**
+     * @return the estimated chance of winning, between 0 and 1
+     */
+    public double getProbability() {
+      return probability;
+    }
+
+    /**
+     * @return the number of rollouts behind the estimate. 0 once the game is over, when the
+     *         answer is certain
+     */
+    public int getRollouts() {
+      return rollouts;
+    }
+
+    /**
+     * @return the standard error of the estimate
+     */
+    public double getStandardError() {
+      return (rollouts == 0) ? 0 : Math.sqrt(probability * (1 - probability) / rollouts);
+    }
+
+    /**
+     * @return the state hash of the position estimated (see Game.getStateHash())
+     */
+    public long getStateHash() {
+      return stateHash;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%.0f%% (+/- %.0f%%, %d rollouts)", 100 * probability,
+          100 * getStandardError(), rollouts);
+    }
+  }
+}
@@ -0,0 +1,364 @@
+package minesweeper.solver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One independent part of the frontier: a set of closed Cells and the open numbers that touch
+ * them, sharing no Cell with any other Component. Counts its solutions (ways of placing mines on
+ * its Cells that agree with every number), by how many mines each uses, both overall and with
+ * each Cell being a mine.
+ * <p>
+ * The Cells are numbered in breadth-first order, so only a few numbers are ever part-way
+ * assigned. Counting is a backtracking search over the Cells in that order, memoised on the
+ * partial sums of those numbers: two branches with the same partial sums have the same ways to
+ * finish. A forward pass over the same states then gives each Cell's counts.
+ *
+ * @author Namdrib
+ *
+ */
+class Component {
+  private static final double[] NONE = new double[0];
+  private static final double[] ONE = {1};
+
+  // Board indices of the Cells, in assignment order
+  final int[] cells;
+  final int[] targets;
+  // For each position, the numbers containing that Cell, and how many of their Cells come after
+  final int[][] numbersAt;
+  final int[][] restAt;
+  // For each boundary (before position p), the numbers part-way assigned
+  final int[][] active;
+
+  // Identifies this Component for the TranspositionCache, if it is to be cached
+  Key key;
+
+  // Filled in by solve(), or copied from an identical Component
+  // solutions[m]: the number of solutions with m mines
+  double[] solutions;
+  // mineSolutions[v][m]: the number of those with the Cell at position v being a mine
+  double[][] mineSolutions;
+
+  // Dropped once solved, as solved Components may be kept in a cache. Kept by countForSampling()
+  private Map<State, double[]>[] memo;
+  private final int[] scratch;
+
+  /**
+   * @param cells board indices of the Cells, in the order to assign them
+   * @param targets the mines each number still needs
+   * @param members for each number, the positions (in <code>cells</code>) of its Cells
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  Component(int[] cells, int[] targets, int[][] members) {
+    int n = cells.length;
+    this.cells = cells;
+    this.targets = targets;
+
+    int[] counts = new int[n];
+    int[] first = new int[targets.length];
+    int[] last = new int[targets.length];
+    for (int c = 0; c < targets.length; c++) {
+      first[c] = n;
+      last[c] = -1;
+      for (int v : members[c]) {
+        counts[v]++;
+        first[c] = Math.min(first[c], v);
+        last[c] = Math.max(last[c], v);
+      }
+    }
+    numbersAt = new int[n][];
+    restAt = new int[n][];
+    for (int v = 0; v < n; v++) {
+      numbersAt[v] = new int[counts[v]];
+      restAt[v] = new int[counts[v]];
+      counts[v] = 0;
+    }
+    for (int c = 0; c < targets.length; c++) {
+      int[] sorted = members[c].clone();
+      Arrays.sort(sorted);
+      for (int k = 0; k < sorted.length; k++) {
+        int v = sorted[k];
+        numbersAt[v][counts[v]] = c;
+        restAt[v][counts[v]++] = sorted.length - 1 - k;
+      }
+    }
+
+    active = new int[n + 1][];
+    for (int p = 0; p <= n; p++) {
+      int num = 0;
+      int[] ids = new int[targets.length];
+      for (int c = 0; c < targets.length; c++) {
+        if (first[c] < p && p <= last[c]) {
+          ids[num++] = c;
+        }
+      }
+      active[p] = Arrays.copyOf(ids, num);
+    }
+
+    memo = new Map[n + 1];
+    for (int p = 0; p <= n; p++) {
+      memo[p] = new HashMap<>();
+    }
+    scratch = new int[targets.length];
+  }
+
+  int size() {
+    return cells.length;
+  }
+
+  /**
+   * Take the counts of an identical Component that has already been solved. They are shared, not
+   * copied
+   */
+  void copyCounts(Component solved) {
+    solutions = solved.solutions;
+    mineSolutions = solved.mineSolutions;
+  }
+
+  /**
+   * Count the solutions, overall and for each Cell being a mine
+   */
+  void solve() {
+    int n = cells.length;
+    State start = new State(new byte[0]);
+    solutions = suffix(0, start);
+    mineSolutions = new double[n][n + 1];
+    if (solutions == NONE) {
+      solutions = new double[n + 1];
+      memo = null;
+      return;
+    }
+
+    // prefix[s][m]: ways to reach state s with m mines so far
+    Map<State, double[]> layer = new HashMap<>();
+    layer.put(start, new double[] {1});
+    for (int p = 0; p < n; p++) {
+      Map<State, double[]> next = new HashMap<>();
+      for (Map.Entry<State, double[]> e : layer.entrySet()) {
+        double[] prefix = e.getValue();
+        for (int x = 0; x <= 1; x++) {
+          State s = step(p, e.getKey(), x);
+          if (s == null) {
+            continue;
+          }
+          double[] rest = suffix(p + 1, s);
+          if (rest == NONE) {
+            continue;
+          }
+          if (x == 1) {
+            // Every solution through here has this Cell as a mine
+            double[] through = mineSolutions[p];
+            for (int a = 0; a < prefix.length; a++) {
+              for (int b = 0; b < rest.length; b++) {
+                through[a + 1 + b] += prefix[a] * rest[b];
+              }
+            }
+          }
+          double[] reached = next.computeIfAbsent(s, k -> new double[prefix.length + 1]);
+          for (int a = 0; a < prefix.length; a++) {
+            reached[a + x] += prefix[a];
+          }
+        }
+      }
+      memo[p].clear();
+      layer = next;
+    }
+    memo = null;
+  }
+
+  /**
+   * Count the solutions overall, and keep what the search learnt so that <code>sample()</code>
+   * can draw solutions. Once this has returned, any number of threads may sample at once
+   */
+  void countForSampling() {
+    solutions = suffix(0, new State(new byte[0]));
+    if (solutions == NONE) {
+      solutions = new double[cells.length + 1];
+    }
+  }
+
+  /**
+   * Draw a solution with <code>numMines</code> mines, each one equally likely. Only for after
+   * <code>countForSampling()</code>
+   *
+   * @param random source of randomness
+   * @param numMines how many mines the solution has. There must be a solution with that many
+   * @param mines set to <code>true</code> at the board index of each Cell drawn as a mine
+   */
+  void sample(Random random, int numMines, boolean[] mines) {
+    int[] work = new int[targets.length];
+    State state = new State(new byte[0]);
+    int need = numMines;
+    for (int p = 0; p < cells.length; p++) {
+      State clear = step(p, state, 0, work);
+      double clearWays = (clear == null) ? 0 : waysWith(p + 1, clear, need);
+      State mine = (need > 0) ? step(p, state, 1, work) : null;
+      double mineWays = (mine == null) ? 0 : waysWith(p + 1, mine, need - 1);
+      boolean isMine = random.nextDouble() * (clearWays + mineWays) >= clearWays;
+      mines[cells[p]] = isMine;
+      if (isMine) {
+        need--;
+        state = mine;
+      } else {
+        state = clear;
+      }
+    }
+  }
+
+  /**
+   * @return the ways to finish from position <code>p</code> in <code>state</code> using exactly
+   *         <code>numMines</code> mines, as already found by <code>countForSampling()</code>
+   */
+  private double waysWith(int p, State state, int numMines) {
+    double[] ways = (p == cells.length) ? ONE : memo[p].get(state);
+    return (ways != null && numMines < ways.length) ? ways[numMines] : 0;
+  }
+
+  /**
+   * @return the number of ways to finish from position <code>p</code> in state
+   *         <code>state</code>, by mines used, or NONE if there are none
+   */
+  private double[] suffix(int p, State state) {
+    if (p == cells.length) {
+      return new double[] {1};
+    }
+    double[] known = memo[p].get(state);
+    if (known != null) {
+      return known;
+    }
+
+    double[] ways = NONE;
+    for (int x = 0; x <= 1; x++) {
+      State s = step(p, state, x);
+      if (s == null) {
+        continue;
+      }
+      double[] rest = suffix(p + 1, s);
+      if (rest == NONE) {
+        continue;
+      }
+      if (ways == NONE) {
+        ways = new double[cells.length - p + 1];
+      }
+      for (int b = 0; b < rest.length; b++) {
+        ways[b + x] += rest[b];
+      }
+    }
+    memo[p].put(state, ways);
+    return ways;
+  }
+
+  /**
+   * Assign <code>x</code> mines to the Cell at position <code>p</code>
+   *
+   * @return the state after it, or <code>null</code> if some number can no longer be satisfied
+   */
+  private State step(int p, State state, int x) {
+    return step(p, state, x, scratch);
+  }
+
+  /**
+   * As <code>step(p, state, x)</code>, working in <code>scratch</code> (one slot per number)
+   */
+  private State step(int p, State state, int x, int[] scratch) {
+    int[] before = active[p];
+    for (int i = 0; i < before.length; i++) {
+      scratch[before[i]] = state.sums[i];
+    }
+    int[] numbers = numbersAt[p];
+    boolean ok = true;
+    for (int i = 0; i < numbers.length; i++) {
+      int c = numbers[i];
+      // A number's first Cell starts it from nothing
+      int sum = (Arrays.binarySearch(before, c) >= 0 ? scratch[c] : 0) + x;
+      scratch[c] = sum;
+      if (sum > targets[c] || sum + restAt[p][i] < targets[c]) {
+        ok = false;
+      }
+    }
+    if (!ok) {
+      return null;
+    }
+
+    int[] after = active[p + 1];
+    byte[] sums = new byte[after.length];
+    for (int i = 0; i < after.length; i++) {
+      sums[i] = (byte) scratch[after[i]];
+    }
+    return new State(sums);
+  }
+
+  /**
+   * Identifies a Component by where its Cells and numbers are and what the numbers show, which
+   * is all its counts depend on. The hash is the XOR of the Zobrist keys of those Cells, so only
+   * the arrays need comparing when two hashes collide
+   *
+   * @author Namdrib
+   *
+   */
+  static final class Key {
+    final int width;
+    final int[] cells;
+    final int[] numbers;
+    final int[] targets;
+    final long hash;
+
+    /**
+     * @param width width of the board, as it decides which Cells are neighbours
+     * @param cells board indices of the Cells, in assignment order
+     * @param numbers board indices of the numbers
+     * @param targets what each number shows
+     * @param hash Zobrist hash of the Cells and numbers
+     */
+    Key(int width, int[] cells, int[] numbers, int[] targets, long hash) {
+      this.width = width;
+      this.cells = cells;
+      this.numbers = numbers;
+      this.targets = targets;
+      this.hash = hash;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key k = (Key) o;
+      return hash == k.hash && width == k.width && Arrays.equals(cells, k.cells)
+          && Arrays.equals(numbers, k.numbers) && Arrays.equals(targets, k.targets);
+    }
+  }
+
+  /**
+   * The partial sums of the numbers part-way assigned at one boundary
+   *
+   * @author Namdrib
+   *
+   */
+  private static final class State {
+    final byte[] sums;
+    final int hash;
+
+    State(byte[] sums) {
+      this.sums = sums;
+      hash = Arrays.hashCode(sums);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof State && Arrays.equals(sums, ((State) o).sums);
+    }
+  }
+}
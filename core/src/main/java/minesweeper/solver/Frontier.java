@@ -0,0 +1,190 @@
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.game.BoardView;
+import minesweeper.game.NeighbourTable;
+import minesweeper.game.Zobrist;
+
+/**
+ * The closed Cells of a board, as a counting problem. Closed Cells next to an open number are
+ * variables, split into Components that share no Cells. The other closed Cells are the interior,
+ * which no number says anything about. Used by ProbabilityEngine to count, and by LayoutSampler
+ * to draw mine layouts.
+ *
+ * @author Namdrib
+ *
+ */
+class Frontier {
+  // For each Cell, its variable number, or -1 for open and interior Cells
+  final int[] variable;
+  // Board indices of the interior Cells
+  final int[] interior;
+  // Mines not yet shown on the board
+  final int remaining;
+  // Unsolved, with their Cells in breadth-first order
+  final List<Component> components;
+
+  /**
+   * @param view the board as it is now
+   * @param table its neighbours
+   * @param numMines the total number of mines
+   */
+  Frontier(BoardView view, NeighbourTable table, int numMines) {
+    int size = view.width() * view.height();
+    variable = new int[size];
+    Arrays.fill(variable, -1);
+    int numVariables = 0;
+    int[] interiorCells = new int[size];
+    int numInterior = 0;
+    int numRemaining = numMines;
+    for (int i = 0; i < size; i++) {
+      CellState state = view.state(i);
+      if (state == CellState.MINE1 || state == CellState.MINE2) {
+        numRemaining--;
+      }
+      if (!Solver.isClosed(state)) {
+        continue;
+      }
+      boolean touchesNumber = false;
+      for (int k = table.start(i); k < table.end(i); k++) {
+        touchesNumber |= ProbabilityEngine.isNumber(view, table.get(k));
+      }
+      if (touchesNumber) {
+        variable[i] = numVariables++;
+      } else {
+        interiorCells[numInterior++] = i;
+      }
+    }
+    interior = Arrays.copyOf(interiorCells, numInterior);
+    remaining = numRemaining;
+
+    // Every number with a closed neighbour is a constraint. Join up the variables it touches
+    int[] parent = new int[numVariables];
+    for (int v = 0; v < numVariables; v++) {
+      parent[v] = v;
+    }
+    List<Integer> numbers = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      if (!ProbabilityEngine.isNumber(view, i)) {
+        continue;
+      }
+      int root = -1;
+      for (int k = table.start(i); k < table.end(i); k++) {
+        int v = variable[table.get(k)];
+        if (v >= 0) {
+          root = (root < 0) ? ProbabilityEngine.find(parent, v)
+              : ProbabilityEngine.union(parent, root, v);
+        }
+      }
+      if (root >= 0) {
+        numbers.add(i);
+      }
+    }
+    components = buildComponents(view, table, variable, parent, numbers);
+  }
+
+  /**
+   * Group the variables and numbers by Component, with each Component's Cells in breadth-first
+   * order
+   */
+  static List<Component> buildComponents(BoardView view, NeighbourTable table,
+      int[] variable, int[] parent, List<Integer> numbers) {
+    int size = variable.length;
+    int[] cellOf = new int[parent.length];
+    for (int i = 0; i < size; i++) {
+      if (variable[i] >= 0) {
+        cellOf[variable[i]] = i;
+      }
+    }
+    List<List<Integer>> numbersByRoot = new ArrayList<>();
+    int[] rootSlot = new int[parent.length];
+    Arrays.fill(rootSlot, -1);
+    for (int number : numbers) {
+      int root = -1;
+      for (int k = table.start(number); k < table.end(number); k++) {
+        int v = variable[table.get(k)];
+        if (v >= 0) {
+          root = ProbabilityEngine.find(parent, v);
+          break;
+        }
+      }
+      if (rootSlot[root] < 0) {
+        rootSlot[root] = numbersByRoot.size();
+        numbersByRoot.add(new ArrayList<>());
+      }
+      numbersByRoot.get(rootSlot[root]).add(number);
+    }
+
+    List<Component> components = new ArrayList<>();
+    int[] position = new int[parent.length];
+    Arrays.fill(position, -1);
+    // slot[i]: where the number at board index i is in the current group
+    int[] slot = new int[size];
+    Arrays.fill(slot, -1);
+    for (List<Integer> group : numbersByRoot) {
+      for (int g = 0; g < group.size(); g++) {
+        slot[group.get(g)] = g;
+      }
+      // Breadth-first from the first number, through numbers that share Cells
+      List<Integer> order = new ArrayList<>();
+      List<Integer> numberQueue = new ArrayList<>();
+      boolean[] queuedNumber = new boolean[group.size()];
+      numberQueue.add(0);
+      queuedNumber[0] = true;
+      for (int q = 0; q < numberQueue.size(); q++) {
+        int number = group.get(numberQueue.get(q));
+        for (int k = table.start(number); k < table.end(number); k++) {
+          int v = variable[table.get(k)];
+          if (v < 0 || position[v] >= 0) {
+            continue;
+          }
+          position[v] = order.size();
+          order.add(v);
+          // Queue the other numbers around this Cell
+          int cell = cellOf[v];
+          for (int j = table.start(cell); j < table.end(cell); j++) {
+            int g = slot[table.get(j)];
+            if (g >= 0 && !queuedNumber[g]) {
+              queuedNumber[g] = true;
+              numberQueue.add(g);
+            }
+          }
+        }
+      }
+
+      int[] cells = new int[order.size()];
+      for (int p = 0; p < cells.length; p++) {
+        cells[p] = cellOf[order.get(p)];
+      }
+      int[] targets = new int[group.size()];
+      int[][] members = new int[group.size()][];
+      int[] numberCells = new int[group.size()];
+      long hash = view.width() * 0x9E3779B97F4A7C15L;
+      for (int cell : cells) {
+        hash ^= Zobrist.key(cell, CellState.FLAG0);
+      }
+      for (int g = 0; g < group.size(); g++) {
+        int number = group.get(g);
+        numberCells[g] = number;
+        targets[g] = view.number(number);
+        hash ^= Zobrist.key(number, view.state(number));
+        int[] m = new int[8];
+        int num = 0;
+        for (int k = table.start(number); k < table.end(number); k++) {
+          int v = variable[table.get(k)];
+          if (v >= 0) {
+            m[num++] = position[v];
+          }
+        }
+        members[g] = Arrays.copyOf(m, num);
+      }
+      Component component = new Component(cells, targets, members);
+      component.key = new Component.Key(view.width(), cells, numberCells, targets, hash);
+      components.add(component);
+    }
+    return components;
+  }
+}
@@ -0,0 +1,54 @@
+package minesweeper.solver;
+
+/**
+ * A suggested Cell to open next, with how risky it is and the open numbers that explain it
+ *
+ * @author Namdrib
+ *
+ */
+public final class Hint {
+  final int index;
+  final double mineProbability;
+  final int[] reasons;
+
+  Hint(int index, double mineProbability, int[] reasons) {
+    this.index = index;
+    this.mineProbability = mineProbability;
+    this.reasons = reasons;
+  }
+
+  /**
+   * @return the index of the Cell to open
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * @return <code>true</code> if the Cell is certainly not a mine
+   */
+  public boolean isSafe() {
+    return mineProbability == 0;
+  }
+
+  /**
+   * @return the chance that the Cell is a mine
+   */
+  public double getMineProbability() {
+    return mineProbability;
+  }
+
+  /**
+   * @return the indices of the open numbers behind the hint. For a safe Cell, the numbers it was
+   *         deduced from. For a guess, the numbers around it (none if it touches no number)
+   */
+  public int[] getReasons() {
+    return reasons.clone();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d (%s, %.1f%% mine)", index, isSafe() ? "safe" : "guess",
+        mineProbability * 100);
+  }
+}
@@ -0,0 +1,118 @@
+package minesweeper.solver;
+
+import java.util.Arrays;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.game.BoardView;
+import minesweeper.game.ChangeSet;
+import minesweeper.game.Game;
+import minesweeper.game.GameListener;
+import minesweeper.game.NeighbourTable;
+
+/**
+ * Answers "what should I open next?" for one Game. Add it to the Game as a listener, so that its
+ * MatrixSolver keeps up with every move. A safe Cell is then usually already known when a hint is
+ * asked for. Only when there is none is the ProbabilityEngine run, and its answer is kept until
+ * the board next changes, so asking again costs nothing.
+ *
+ * @author Namdrib
+ *
+ */
+public class Hinter implements GameListener {
+  Game game;
+  Solver solver;
+  ProbabilityEngine engine;
+  // The ProbabilityEngine's answer for the board as it is now, or null
+  double[] probabilities;
+
+  /**
+   * @param game the Game to give hints for
+   */
+  public Hinter(Game game) {
+    this.game = game;
+    solver = new MatrixSolver(game);
+    engine = new ProbabilityEngine(game);
+  }
+
+  /**
+   * Cells the player has flagged are never suggested, even when the flag is wrong, as a direct
+   * click on a flag does nothing
+   *
+   * @return a Cell to open next: one that is certainly safe if there is any, otherwise the one
+   *         least likely to be a mine. <code>null</code> once the game is finished, or if every
+   *         unflagged Cell is certainly a mine
+   */
+  public Hint next() {
+    if (game.getFinished() != 0) {
+      return null;
+    }
+    BoardView view = game.getBoardView();
+    if (!game.isStarted()) {
+      // The first click is always safe, and the middle is the likeliest to open an area
+      return new Hint(view.height() / 2 * view.width() + view.width() / 2, 0, new int[0]);
+    }
+
+    for (int safe = solver.nextSafe(); safe >= 0; safe = solver.safe.nextSetBit(safe + 1)) {
+      if (view.state(safe) != CellState.FLAG1) {
+        return new Hint(safe, 0, solver.getReasons(safe));
+      }
+    }
+
+    if (probabilities == null) {
+      probabilities = engine.compute();
+    }
+    int best = -1;
+    for (int i = 0; i < probabilities.length; i++) {
+      // Leave the player's flags alone
+      if (view.state(i) == CellState.FLAG0 || view.state(i) == CellState.FLAG2) {
+        if (best < 0 || probabilities[i] < probabilities[best]) {
+          best = i;
+        }
+      }
+    }
+    if (best < 0 || !(probabilities[best] < 1)) {
+      return null;
+    }
+    return new Hint(best, probabilities[best], numbersAround(best));
+  }
+
+  /**
+   * @return the open numbers next to <code>index</code>
+   */
+  int[] numbersAround(int index) {
+    NeighbourTable table = game.getNeighbourTable();
+    int[] numbers = new int[8];
+    int num = 0;
+    for (int k = table.start(index); k < table.end(index); k++) {
+      if (ProbabilityEngine.isNumber(game.getBoardView(), table.get(k))) {
+        numbers[num++] = table.get(k);
+      }
+    }
+    return Arrays.copyOf(numbers, num);
+  }
+
+  @Override
+  public void cellsChanged(ChangeSet changes) {
+    solver.update(changes);
+    probabilities = null;
+  }
+
+  @Override
+  public void gameLose() {
+    ;
+  }
+
+  @Override
+  public void gameWin() {
+    ;
+  }
+
+  @Override
+  public void gameTick() {
+    ;
+  }
+
+  @Override
+  public void flagChanged() {
+    ;
+  }
+}
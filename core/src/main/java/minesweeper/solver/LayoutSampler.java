@@ -0,0 +1,135 @@
+package minesweeper.solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import minesweeper.game.Game;
+
+/**
+ * Draws mine layouts that agree with everything a Game shows, each equally likely, as if the
+ * board had been dealt again with only what the player can see fixed. Monte Carlo players search
+ * over these, so they never look at where the real mines are.
+ * <p>
+ * Drawing works like ProbabilityEngine in reverse. First the number of mines in each Component is
+ * drawn, weighted by its solutions and the ways to place the rest of the mines. Then each
+ * Component draws one of its solutions with that many mines, Cell by Cell, using the counts its
+ * search remembered. The leftover mines go anywhere in the interior.
+ * <p>
+ * All the counting is done once, when the sampler is made. After that <code>sample()</code> only
+ * reads, so one sampler can be shared by many threads, each with its own Random. Drawing
+ * allocates nothing but the small search states it looks up.
+ *
+ * @author Namdrib
+ *
+ */
+public class LayoutSampler {
+  final int size;
+  final List<Component> components;
+  final int[] interior;
+  final int remaining;
+  // weights[c][t]: the relative weight of the Components after c and the interior holding the
+  // rest of the mines, when c and the Components before it hold t
+  final double[][] weights;
+
+  /**
+   * Count the layouts that fit <code>game</code> as it is now
+   *
+   * @param game the Game to draw layouts for
+   * @throws IllegalStateException if no layout fits, e.g. after a loss
+   */
+  public LayoutSampler(Game game) {
+    Frontier frontier =
+        new Frontier(game.getBoardView(), game.getNeighbourTable(), game.getNumMines());
+    size = frontier.variable.length;
+    components = frontier.components;
+    interior = frontier.interior;
+    remaining = frontier.remaining;
+    for (Component c : components) {
+      c.countForSampling();
+    }
+
+    // after[c]: mine counts of the Components from c on, convolved
+    int k = components.size();
+    double[][] after = new double[k + 1][];
+    after[k] = new double[] {1};
+    for (int c = k - 1; c >= 0; c--) {
+      after[c] = ProbabilityEngine.convolve(components.get(c).solutions, after[c + 1]);
+    }
+
+    // Scaled so the largest interior weight is 1, as in ProbabilityEngine.combine()
+    double[] interiorWeight = new double[after[0].length];
+    double maxLog = Double.NEGATIVE_INFINITY;
+    for (int m = 0; m < interiorWeight.length; m++) {
+      interiorWeight[m] = ProbabilityEngine.logChoose(interior.length, remaining - m);
+      maxLog = Math.max(maxLog, interiorWeight[m]);
+    }
+    double total = 0;
+    for (int m = 0; m < interiorWeight.length; m++) {
+      interiorWeight[m] = Math.exp(interiorWeight[m] - maxLog);
+      total += after[0][m] * interiorWeight[m];
+    }
+    if (!(total > 0)) {
+      throw new IllegalStateException("LayoutSampler(): no layout fits the board");
+    }
+
+    weights = new double[k][interiorWeight.length];
+    for (int c = 0; c < k; c++) {
+      double[] rest = after[c + 1];
+      for (int t = 0; t < interiorWeight.length; t++) {
+        for (int o = 0; o < rest.length && t + o < interiorWeight.length; o++) {
+          weights[c][t] += rest[o] * interiorWeight[t + o];
+        }
+      }
+    }
+  }
+
+  /**
+   * Draw a layout
+   *
+   * @param random source of randomness, used by this thread only
+   * @param mines filled in with <code>true</code> for each Cell that is a mine in the layout. Open
+   *        Cells are never mines
+   */
+  public void sample(Random random, boolean[] mines) {
+    Arrays.fill(mines, false);
+    int placed = 0;
+    for (int c = 0; c < components.size(); c++) {
+      Component component = components.get(c);
+      double[] solutions = component.solutions;
+      double[] weight = weights[c];
+      double sum = 0;
+      for (int m = 0; m < solutions.length && placed + m < weight.length; m++) {
+        sum += solutions[m] * weight[placed + m];
+      }
+      double r = random.nextDouble() * sum;
+      // If rounding leaves r over, the last count that has any weight is used
+      int chosen = -1;
+      for (int m = 0; m < solutions.length && placed + m < weight.length && r >= 0; m++) {
+        double w = solutions[m] * weight[placed + m];
+        if (w > 0) {
+          chosen = m;
+          r -= w;
+        }
+      }
+      component.sample(random, chosen, mines);
+      placed += chosen;
+    }
+
+    // Selection sampling: each interior Cell is taken with the chance that leaves every subset of
+    // the right size equally likely, without copying the interior to shuffle it
+    int left = remaining - placed;
+    for (int i = 0; i < interior.length && left > 0; i++) {
+      if (random.nextInt(interior.length - i) < left) {
+        mines[interior[i]] = true;
+        left--;
+      }
+    }
+  }
+
+  /**
+   * @return the number of Cells on the board, and so the length <code>sample()</code> expects
+   */
+  public int size() {
+    return size;
+  }
+}
@@ -0,0 +1,280 @@
+package minesweeper.solver;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import minesweeper.game.Game;
+
+/**
+ * A Solver that, whenever its rules leave no safe Cell, also reduces the whole frontier as a
+ * matrix. Each open number is a row saying that its unknown neighbours hold its remaining mines.
+ * A row's coefficients are all -1, 0 or +1, so it is stored as two <code>long[]</code> bit sets
+ * (the +1 and -1 columns), and rows are added and subtracted a word at a time.
+ * <p>
+ * Elimination runs column by column, as in Gauss-Jordan. Subtracting a pivot from another row
+ * only happens if no coefficient would leave the -1 to +1 range; other rows are left as they are,
+ * which never loses information. Every row is then checked against its bounds. If its
+ * right-hand side is the sum of its +1 columns, those are all mines and the -1 columns are all
+ * safe, and the other way round if it is minus the count of its -1 columns. This includes the
+ * pair rule, and follows longer chains of numbers, in time polynomial in the frontier's size
+ * rather than exponential.
+ * <p>
+ * The total mine count is one more row, over every closed Cell nothing is known about, so the
+ * end of a game can be solved by counting.
+ *
+ * @author Namdrib
+ *
+ */
+public class MatrixSolver extends Solver {
+  // The numbers behind each Cell deduced by the matrix. Created lazily, as Solver's constructor
+  // already solves before this class's fields are initialised
+  Map<Integer, int[]> matrixReasons;
+
+  /**
+   * Read the board as it is now, and deduce everything that can be deduced from it
+   *
+   * @param game the Game to solve
+   */
+  public MatrixSolver(Game game) {
+    super(game);
+  }
+
+  @Override
+  public int[] getReasons(int index) {
+    int[] reasons = (matrixReasons == null) ? null : matrixReasons.get(index);
+    if (reasons != null && known[index] != UNKNOWN && reasonA[index] < 0) {
+      return reasons.clone();
+    }
+    return super.getReasons(index);
+  }
+
+  @Override
+  void solve() {
+    super.solve();
+    while (safe.isEmpty() && eliminate()) {
+      super.solve();
+    }
+  }
+
+  /**
+   * Build the matrix for the current frontier, reduce it, and mark what it shows
+   *
+   * @return <code>true</code> if anything new was deduced
+   */
+  boolean eliminate() {
+    // Columns are the closed Cells nothing is known about, the frontier first
+    int[] column = new int[known.length];
+    int numColumns = 0;
+    int[] cellOf = new int[known.length];
+    for (int i = frontier.nextSetBit(0); i >= 0; i = frontier.nextSetBit(i + 1)) {
+      if (known[i] == UNKNOWN) {
+        column[i] = numColumns;
+        cellOf[numColumns++] = i;
+      }
+    }
+    int numFrontier = numColumns;
+    if (numFrontier == 0) {
+      return false;
+    }
+    for (int i = 0; i < known.length; i++) {
+      if (known[i] == UNKNOWN && !frontier.get(i) && isClosed(view.state(i))) {
+        column[i] = numColumns;
+        cellOf[numColumns++] = i;
+      }
+    }
+
+    // Rows are the numbers with any of those Cells around them, and then the mine count
+    int words = (numColumns + 63) >>> 6;
+    int[] numberOf = new int[8 * numFrontier + 1];
+    int numRows = 0;
+    BitSet isRow = new BitSet(known.length);
+    for (int c = 0; c < numFrontier; c++) {
+      int cell = cellOf[c];
+      for (int k = table.start(cell); k < table.end(cell); k++) {
+        int n = table.get(k);
+        if (isNumber(n) && !isRow.get(n)) {
+          isRow.set(n);
+          numberOf[numRows++] = n;
+        }
+      }
+    }
+    numberOf[numRows++] = -1;
+    long[][] plus = new long[numRows][words];
+    long[][] minus = new long[numRows][words];
+    int[] rhs = new int[numRows];
+    // The original rows each row was built from, for the reasons
+    long[][] from = new long[numRows][(numRows + 63) >>> 6];
+    int global = numRows - 1;
+    rhs[global] = game.getNumMines() - mines.cardinality();
+    for (int c = 0; c < numColumns; c++) {
+      set(plus[global], c);
+    }
+    set(from[global], global);
+    for (int r = 0; r < global; r++) {
+      int n = numberOf[r];
+      rhs[r] = remainingMines(n);
+      for (int k = table.start(n); k < table.end(n); k++) {
+        int i = table.get(k);
+        if (isClosed(view.state(i)) && known[i] == UNKNOWN) {
+          set(plus[r], column[i]);
+        }
+      }
+      set(from[r], r);
+    }
+
+    // Gauss-Jordan, keeping every coefficient in -1..1
+    int rank = 0;
+    for (int c = 0; c < numColumns && rank < numRows; c++) {
+      int pivot = -1;
+      for (int r = rank; r < numRows && pivot < 0; r++) {
+        if (get(plus[r], c) || get(minus[r], c)) {
+          pivot = r;
+        }
+      }
+      if (pivot < 0) {
+        continue;
+      }
+      swap(plus, minus, rhs, from, pivot, rank);
+      if (get(minus[rank], c)) {
+        negate(plus, minus, rhs, rank);
+      }
+      for (int r = 0; r < numRows; r++) {
+        if (r == rank) {
+          continue;
+        }
+        if (get(plus[r], c)) {
+          combine(plus, minus, rhs, from, r, rank, -1);
+        } else if (get(minus[r], c)) {
+          combine(plus, minus, rhs, from, r, rank, 1);
+        }
+      }
+      rank++;
+    }
+
+    boolean found = false;
+    for (int r = 0; r < numRows; r++) {
+      int numPlus = count(plus[r]);
+      int numMinus = count(minus[r]);
+      if (numPlus + numMinus == 0) {
+        continue;
+      }
+      if (rhs[r] == numPlus) {
+        found |= markRow(plus[r], MINE, cellOf, from[r], numberOf);
+        found |= markRow(minus[r], SAFE, cellOf, from[r], numberOf);
+      } else if (rhs[r] == -numMinus) {
+        found |= markRow(plus[r], SAFE, cellOf, from[r], numberOf);
+        found |= markRow(minus[r], MINE, cellOf, from[r], numberOf);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Add <code>sign</code> times row <code>p</code> to row <code>r</code>, unless that would
+   * leave a coefficient outside -1..1
+   */
+  static void combine(long[][] plus, long[][] minus, int[] rhs, long[][] from, int r, int p,
+      int sign) {
+    long[] addPlus = (sign > 0) ? plus[p] : minus[p];
+    long[] addMinus = (sign > 0) ? minus[p] : plus[p];
+    long[] rp = plus[r];
+    long[] rm = minus[r];
+    for (int w = 0; w < rp.length; w++) {
+      if ((rp[w] & addPlus[w]) != 0 || (rm[w] & addMinus[w]) != 0) {
+        return;
+      }
+    }
+    for (int w = 0; w < rp.length; w++) {
+      long p2 = rp[w] | addPlus[w];
+      long m2 = rm[w] | addMinus[w];
+      // +1 and -1 in the same column cancel out
+      long cancelled = p2 & m2;
+      rp[w] = p2 & ~cancelled;
+      rm[w] = m2 & ~cancelled;
+    }
+    rhs[r] += sign * rhs[p];
+    for (int w = 0; w < from[r].length; w++) {
+      from[r][w] |= from[p][w];
+    }
+  }
+
+  /**
+   * Mark every Cell in <code>columns</code>
+   *
+   * @return <code>true</code> if any of them was not already known
+   */
+  boolean markRow(long[] columns, byte what, int[] cellOf, long[] rows, int[] numberOf) {
+    boolean found = false;
+    for (int w = 0; w < columns.length; w++) {
+      for (long bits = columns[w]; bits != 0; bits &= bits - 1) {
+        int cell = cellOf[(w << 6) + Long.numberOfTrailingZeros(bits)];
+        if (known[cell] != UNKNOWN) {
+          continue;
+        }
+        mark(cell, what, -1, -1);
+        if (matrixReasons == null) {
+          matrixReasons = new HashMap<>();
+        }
+        matrixReasons.put(cell, numbersIn(rows, numberOf));
+        found = true;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * @return the open numbers behind the original <code>rows</code>, leaving out the mine count
+   */
+  static int[] numbersIn(long[] rows, int[] numberOf) {
+    int[] numbers = new int[count(rows)];
+    int num = 0;
+    for (int w = 0; w < rows.length; w++) {
+      for (long bits = rows[w]; bits != 0; bits &= bits - 1) {
+        int number = numberOf[(w << 6) + Long.numberOfTrailingZeros(bits)];
+        if (number >= 0) {
+          numbers[num++] = number;
+        }
+      }
+    }
+    return Arrays.copyOf(numbers, num);
+  }
+
+  static void swap(long[][] plus, long[][] minus, int[] rhs, long[][] from, int a, int b) {
+    long[] t = plus[a];
+    plus[a] = plus[b];
+    plus[b] = t;
+    t = minus[a];
+    minus[a] = minus[b];
+    minus[b] = t;
+    t = from[a];
+    from[a] = from[b];
+    from[b] = t;
+    int s = rhs[a];
+    rhs[a] = rhs[b];
+    rhs[b] = s;
+  }
+
+  static void negate(long[][] plus, long[][] minus, int[] rhs, int r) {
+    long[] t = plus[r];
+    plus[r] = minus[r];
+    minus[r] = t;
+    rhs[r] = -rhs[r];
+  }
+
+  static boolean get(long[] bits, int i) {
+    return (bits[i >>> 6] & (1L << i)) != 0;
+  }
+
+  static void set(long[] bits, int i) {
+    bits[i >>> 6] |= 1L << i;
+  }
+
+  static int count(long[] bits) {
+    int n = 0;
+    for (long w : bits) {
+      n += Long.bitCount(w);
+    }
+    return n;
+  }
+}
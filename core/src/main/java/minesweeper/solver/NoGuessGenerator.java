@@ -0,0 +1,97 @@
+package minesweeper.solver;
+
+import java.util.OptionalLong;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.PackedGameImpl;
+import minesweeper.game.SeedSearch;
+
+/**
+ * Finds boards that can be won from the first click without guessing. Candidates are the boards
+ * an OPENING game would place for a run of seeds derived from the requested one. Each is played
+ * out headlessly by the Solver, which only ever opens Cells it has proved safe, and the first
+ * candidate it wins is used.
+ * <p>
+ * Candidates are tried in parallel, a batch at a time, on whichever ForkJoinPool the caller is
+ * running in (the common pool otherwise). The lowest winning candidate in a batch is always
+ * chosen, so the same seed and first click give the same board however many threads search, as
+ * long as the search finishes in time.
+ *
+ * @author Namdrib
+ *
+ */
+public class NoGuessGenerator {
+  // Give up and accept an ordinary OPENING board after this many candidates, or this long
+  public static final int MAX_CANDIDATES = 100000;
+  public static final long TIMEOUT_MILLIS = 2000;
+
+  private NoGuessGenerator() {}
+
+  /**
+   * @param timeoutMillis how long each search may take
+   * @return a SeedSearch for NO_GUESS Games, which gives up after <code>timeoutMillis</code>
+   */
+  public static SeedSearch within(long timeoutMillis) {
+    return (width, height, numMines, seed, first) -> findSeed(width, height, numMines, seed,
+        first, timeoutMillis);
+  }
+
+  /**
+   * @param width board width, already clamped
+   * @param height board height, already clamped
+   * @param numMines mine count, already clamped
+   * @param seed the board's seed
+   * @param first index of the first Cell opened
+   * @param timeoutMillis give up once a batch ends after this long
+   * @return a seed for which an OPENING board, first opened at <code>first</code>, can be won
+   *         without guessing, or nothing if none was found in time
+   */
+  public static OptionalLong findSeed(int width, int height, int numMines, long seed, int first,
+      long timeoutMillis) {
+    long start = System.nanoTime();
+    long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    // Enough to keep every thread busy, without running far past the first winner
+    int batch = Math.max(4 * ForkJoinPool.getCommonPoolParallelism(), 8);
+    for (long from = 0; from < MAX_CANDIDATES; from += batch) {
+      OptionalLong found = LongStream.range(from, Math.min(from + batch, MAX_CANDIDATES))
+          .parallel().map(k -> candidate(seed, k))
+          .filter(s -> isNoGuess(width, height, numMines, s, first)).findFirst();
+      if (found.isPresent()) {
+        return found;
+      }
+      if (System.nanoTime() - start >= timeoutNanos) {
+        break;
+      }
+    }
+    return OptionalLong.empty();
+  }
+
+  /**
+   * @return the seed of the <code>k</code>-th candidate. The 0th is the requested seed
+   */
+  static long candidate(long seed, long k) {
+    return seed + k * 0x9E3779B97F4A7C15L;
+  }
+
+  /**
+   * Play the OPENING board for <code>seed</code> from <code>first</code>, opening only Cells the
+   * Solver proves safe
+   *
+   * @return <code>true</code> if that wins the game
+   */
+  public static boolean isNoGuess(int width, int height, int numMines, long seed, int first) {
+    PackedGameImpl game = new PackedGameImpl(GameDifficulty.CUSTOM, width, height, numMines,
+        seed, FirstClickMode.OPENING);
+    game.open(first, true);
+    Solver solver = new Solver(game);
+    game.addListener(solver);
+    for (int next = solver.nextSafe(); next >= 0 && game.getFinished() == 0;
+        next = solver.nextSafe()) {
+      game.open(next, true);
+    }
+    return game.getFinished() == 1;
+  }
+}
@@ -0,0 +1,314 @@
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.game.BoardView;
+import minesweeper.game.Game;
+
+/**
+ * Works out the exact chance that each closed Cell is a mine, given the open numbers and the
+ * total number of mines, with every arrangement of mines that fits equally likely.
+ * <p>
+ * The frontier is split into Components that share no Cells (see Frontier), and each is counted
+ * on its own (see Component). The rest of the closed Cells (the interior) touch no number, so any
+ * arrangement of the leftover mines there fits; a frontier with <code>m</code> mines is weighted
+ * by the <code>C(interior, remaining - m)</code> ways to place the rest. Larger Components are
+ * counted in parallel on a ForkJoinPool.
+ * <p>
+ * Flags are not trusted. Each call to <code>compute()</code> looks at the whole board again.
+ * <p>
+ * Results are kept in two TranspositionCaches, shared by every engine unless set otherwise. Whole
+ * boards are looked up by the Game's state hash, size and mine count, which catches a hint asked
+ * for twice, or a board seen again in another game. Each Component is looked up by its own Zobrist
+ * hash, so a move elsewhere on the board does not mean counting the unchanged parts again.
+ *
+ * @author Namdrib
+ *
+ */
+public class ProbabilityEngine {
+  // Components this small are quicker to count than to hand to another thread
+  static final int PARALLEL_THRESHOLD = 16;
+
+  // logFactorial[n] = ln(n!), grown as needed and shared by all engines
+  private static volatile double[] logFactorial = {0};
+
+  // The caches used unless an engine is given others
+  public static final TranspositionCache<Key, double[]> SHARED_RESULTS =
+      new TranspositionCache<>(256);
+  public static final TranspositionCache<Component.Key, Component> SHARED_COMPONENTS =
+      new TranspositionCache<>(16384);
+
+  Game game;
+  ForkJoinPool pool;
+  TranspositionCache<Key, double[]> resultCache = SHARED_RESULTS;
+  TranspositionCache<Component.Key, Component> componentCache = SHARED_COMPONENTS;
+
+  /**
+   * @param game the Game to look at
+   */
+  public ProbabilityEngine(Game game) {
+    this(game, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param game the Game to look at
+   * @param pool counts large Components in parallel
+   */
+  public ProbabilityEngine(Game game, ForkJoinPool pool) {
+    this.game = game;
+    this.pool = pool;
+  }
+
+  /**
+   * @param resultCache where to keep whole results, or <code>null</code> not to
+   */
+  public void setResultCache(TranspositionCache<Key, double[]> resultCache) {
+    this.resultCache = resultCache;
+  }
+
+  public TranspositionCache<Key, double[]> getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * @param componentCache where to keep the counts of each Component, or <code>null</code> not
+   *        to
+   */
+  public void setComponentCache(TranspositionCache<Component.Key, Component> componentCache) {
+    this.componentCache = componentCache;
+  }
+
+  public TranspositionCache<Component.Key, Component> getComponentCache() {
+    return componentCache;
+  }
+
+  /**
+   * @return for each Cell, the chance it is a mine. Open Cells are 0. If nothing fits what is on
+   *         the board (e.g. after a loss), every closed Cell is <code>NaN</code>
+   */
+  public double[] compute() {
+    BoardView view = game.getBoardView();
+    Key key = new Key(view.width(), view.height(), game.getNumMines(), game.getStateHash());
+    double[] cached = (resultCache == null) ? null : resultCache.get(key);
+    if (cached != null) {
+      return cached.clone();
+    }
+    double[] probabilities = solve();
+    if (resultCache != null) {
+      resultCache.put(key, probabilities.clone());
+    }
+    return probabilities;
+  }
+
+  /**
+   * Work out every Cell's probability from scratch, looking up only the Components
+   */
+  double[] solve() {
+    Frontier frontier =
+        new Frontier(game.getBoardView(), game.getNeighbourTable(), game.getNumMines());
+    count(frontier.components);
+
+    double[] probabilities = new double[frontier.variable.length];
+    double p = combine(frontier.components, probabilities, frontier.interior.length,
+        frontier.remaining);
+    for (int i : frontier.interior) {
+      probabilities[i] = p;
+    }
+    return probabilities;
+  }
+
+  /**
+   * Count every Component's solutions that are not cached, the larger ones in parallel
+   */
+  void count(List<Component> components) {
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    List<Component> small = new ArrayList<>();
+    for (Component c : components) {
+      Component cached = (componentCache == null) ? null : componentCache.get(c.key);
+      if (cached != null) {
+        c.copyCounts(cached);
+      } else if (c.size() >= PARALLEL_THRESHOLD) {
+        tasks.add(pool.submit(() -> solve(c)));
+      } else {
+        small.add(c);
+      }
+    }
+    for (Component c : small) {
+      solve(c);
+    }
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+  }
+
+  void solve(Component c) {
+    c.solve();
+    if (componentCache != null) {
+      componentCache.put(c.key, c);
+    }
+  }
+
+  /**
+   * Weigh each Component's solutions by the ways to place the other mines elsewhere, and fill in
+   * the probability of each frontier Cell
+   *
+   * @return the probability of each interior Cell
+   */
+  double combine(List<Component> components, double[] probabilities, int interior,
+      int remaining) {
+    int k = components.size();
+    // before[c] and after[c]: mine counts of all Components before and after c, convolved
+    double[][] before = new double[k + 1][];
+    double[][] after = new double[k + 1][];
+    before[0] = new double[] {1};
+    after[k] = new double[] {1};
+    for (int c = 0; c < k; c++) {
+      before[c + 1] = convolve(before[c], components.get(c).solutions);
+    }
+    for (int c = k - 1; c >= 0; c--) {
+      after[c] = convolve(components.get(c).solutions, after[c + 1]);
+    }
+    double[] total = before[k];
+
+    // weight[m]: ways to put the remaining mines in the interior, for m mines on the frontier,
+    // scaled so the largest is 1
+    double[] weight = new double[total.length];
+    double maxLog = Double.NEGATIVE_INFINITY;
+    for (int m = 0; m < total.length; m++) {
+      weight[m] = logChoose(interior, remaining - m);
+      maxLog = Math.max(maxLog, weight[m]);
+    }
+    double z = 0;
+    double interiorMines = 0;
+    for (int m = 0; m < total.length; m++) {
+      weight[m] = Math.exp(weight[m] - maxLog);
+      z += total[m] * weight[m];
+      interiorMines += total[m] * weight[m] * (remaining - m);
+    }
+    double interiorProbability =
+        (z > 0 && interior > 0) ? interiorMines / z / interior : Double.NaN;
+
+    for (int c = 0; c < k; c++) {
+      Component component = components.get(c);
+      double[] others = convolve(before[c], after[c + 1]);
+      // g[m]: the weight of a solution of this Component with m mines
+      double[] g = new double[component.solutions.length];
+      for (int m = 0; m < g.length; m++) {
+        for (int o = 0; o < others.length && m + o < weight.length; o++) {
+          g[m] += others[o] * weight[m + o];
+        }
+      }
+      for (int v = 0; v < component.size(); v++) {
+        double p = 0;
+        double[] mine = component.mineSolutions[v];
+        for (int m = 0; m < mine.length; m++) {
+          p += mine[m] * g[m];
+        }
+        probabilities[component.cells[v]] = (z > 0) ? p / z : Double.NaN;
+      }
+    }
+    return interiorProbability;
+  }
+
+  static double[] convolve(double[] a, double[] b) {
+    double[] c = new double[a.length + b.length - 1];
+    for (int i = 0; i < a.length; i++) {
+      if (a[i] == 0) {
+        continue;
+      }
+      for (int j = 0; j < b.length; j++) {
+        c[i + j] += a[i] * b[j];
+      }
+    }
+    return c;
+  }
+
+  /**
+   * @return ln(C(n, k)), or negative infinity if <code>k</code> is out of range
+   */
+  static double logChoose(int n, int k) {
+    if (k < 0 || k > n) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    double[] table = logFactorial;
+    if (table.length <= n) {
+      table = growLogFactorial(n);
+    }
+    return table[n] - table[k] - table[n - k];
+  }
+
+  private static synchronized double[] growLogFactorial(int n) {
+    double[] table = logFactorial;
+    if (table.length <= n) {
+      double[] grown = Arrays.copyOf(table, Math.max(n + 1, table.length * 2));
+      for (int i = table.length; i < grown.length; i++) {
+        grown[i] = grown[i - 1] + Math.log(i);
+      }
+      logFactorial = grown;
+      table = grown;
+    }
+    return table;
+  }
+
+  static boolean isNumber(BoardView view, int index) {
+    return view.state(index).ordinal() <= CellState.OPEN8.ordinal();
+  }
+
+  static int find(int[] parent, int v) {
+    while (parent[v] != v) {
+      parent[v] = parent[parent[v]];
+      v = parent[v];
+    }
+    return v;
+  }
+
+  static int union(int[] parent, int a, int b) {
+    int ra = find(parent, a);
+    int rb = find(parent, b);
+    parent[rb] = ra;
+    return ra;
+  }
+
+  /**
+   * What a whole result is cached under. The hash alone could collide with another board's, so a
+   * hit must also match the board's size and mine count
+   *
+   * @author Namdrib
+   *
+   */
+  public static final class Key {
+    final int width;
+    final int height;
+    final int numMines;
+    final long hash;
+
+    /**
+     * @param hash the Game's state hash (see Game.getStateHash())
+     */
+    public Key(int width, int height, int numMines, long hash) {
+      this.width = width;
+      this.height = height;
+      this.numMines = numMines;
+      this.hash = hash;
+    }
+
+    @Override
+    public int hashCode() {
+      long h = hash ^ (numMines * 0x9E3779B97F4A7C15L);
+      return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key k = (Key) o;
+      return hash == k.hash && width == k.width && height == k.height && numMines == k.numMines;
+    }
+  }
+}
@@ -0,0 +1,425 @@
+package minesweeper.solver;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.game.BoardView;
+import minesweeper.game.ChangeSet;
+import minesweeper.game.Game;
+import minesweeper.game.GameListener;
+import minesweeper.game.NeighbourTable;
+
+/**
+ * Finds the closed Cells that are certainly safe or certainly mines, using only what the player
+ * can see. Two rules are applied until nothing more follows:
+ * <ul>
+ * <li>Single Cell: a number whose remaining mines are zero makes its closed neighbours safe, and
+ * one whose remaining mines equal its closed neighbours makes them all mines
+ * <li>Pairs (the 1-2 pattern, which includes subsets): if the difference between two overlapping
+ * numbers' remaining mines is the number of closed Cells only the larger one can see, those are
+ * mines and the Cells only the smaller one can see are safe
+ * </ul>
+ * Flags are the player's guesses, so they are treated as closed Cells and never trusted.
+ * <p>
+ * The frontier (closed Cells next to an open number) is kept up to date from each action's
+ * ChangeSet, and only the numbers around changed Cells are looked at again. Add the Solver to its
+ * Game as a listener, or pass it change sets with <code>update()</code>. One Solver follows one
+ * board; call <code>reset()</code> after a new board is created.
+ *
+ * @author Namdrib
+ *
+ */
+public class Solver implements GameListener {
+  static final byte UNKNOWN = 0;
+  static final byte SAFE = 1;
+  static final byte MINE = 2;
+
+  Game game;
+  BoardView view;
+  NeighbourTable table;
+  // What has been deduced about each closed Cell, and the numbers it was deduced from (-1 if
+  // only one was needed)
+  byte[] known;
+  int[] reasonA;
+  int[] reasonB;
+  BitSet safe;
+  BitSet mines;
+  BitSet frontier;
+
+  // Open numbers waiting to be looked at, as a ring buffer. Each index is queued at most once
+  int[] queue;
+  boolean[] queued;
+  int head;
+  int size;
+
+  // Scratch space for the unknown neighbours of the two numbers being compared
+  final int[] unknownA = new int[8];
+  final int[] unknownB = new int[8];
+  final int[] seen = new int[24];
+
+  /**
+   * Read the board as it is now, and deduce everything that can be deduced from it
+   *
+   * @param game the Game to solve
+   */
+  public Solver(Game game) {
+    this.game = game;
+    reset();
+  }
+
+  /**
+   * Forget everything, and read the board again from scratch. The arrays are reused if the board
+   * is the same size, so solvers that follow many games in turn allocate next to nothing
+   */
+  public void reset() {
+    view = game.getBoardView();
+    table = game.getNeighbourTable();
+    int n = view.width() * view.height();
+    if (known != null && known.length == n) {
+      Arrays.fill(known, UNKNOWN);
+      Arrays.fill(queued, false);
+      safe.clear();
+      mines.clear();
+      frontier.clear();
+    } else {
+      known = new byte[n];
+      reasonA = new int[n];
+      reasonB = new int[n];
+      safe = new BitSet(n);
+      mines = new BitSet(n);
+      frontier = new BitSet(n);
+      queue = new int[n];
+      queued = new boolean[n];
+    }
+    head = 0;
+    size = 0;
+
+    view.forEachOpen(this::opened);
+    solve();
+  }
+
+  /**
+   * Take in the Cells changed by one action, and deduce what follows from them
+   *
+   * @param changes as given to <code>GameListener.cellsChanged()</code>
+   */
+  public void update(ChangeSet changes) {
+    changes.forEach(i -> {
+      if (!isClosed(view.state(i))) {
+        opened(i);
+      }
+    });
+    solve();
+  }
+
+  /**
+   * @return <code>true</code> if the closed Cell at <code>index</code> is certainly not a mine
+   */
+  public boolean isSafe(int index) {
+    return known[index] == SAFE;
+  }
+
+  /**
+   * @return <code>true</code> if the closed Cell at <code>index</code> is certainly a mine
+   */
+  public boolean isMine(int index) {
+    return known[index] == MINE;
+  }
+
+  /**
+   * @return the open numbers that show what the closed Cell at <code>index</code> is: one for the
+   *         single Cell rule, two for the pair rule, none if nothing is known about it
+   */
+  public int[] getReasons(int index) {
+    if (known[index] == UNKNOWN) {
+      return new int[0];
+    }
+    return (reasonB[index] < 0) ? new int[] {reasonA[index]}
+        : new int[] {reasonA[index], reasonB[index]};
+  }
+
+  /**
+   * @return the index of a closed Cell that is certainly safe, or -1 if there are none
+   */
+  public int nextSafe() {
+    return safe.nextSetBit(0);
+  }
+
+  /**
+   * Call <code>action</code> with the index of each closed Cell that is certainly safe
+   */
+  public void forEachSafe(IntConsumer action) {
+    safe.stream().forEach(action);
+  }
+
+  /**
+   * Call <code>action</code> with the index of each closed Cell that is certainly a mine
+   */
+  public void forEachMine(IntConsumer action) {
+    mines.stream().forEach(action);
+  }
+
+  /**
+   * Call <code>action</code> with the index of each closed Cell next to an open number, whether
+   * or not anything is known about it
+   */
+  public void forEachFrontier(IntConsumer action) {
+    frontier.stream().forEach(action);
+  }
+
+  /**
+   * @return the number of closed Cells next to an open number
+   */
+  public int getFrontierSize() {
+    return frontier.cardinality();
+  }
+
+  /**
+   * @return the number of closed Cells known to be safe
+   */
+  public int getSafeCount() {
+    return safe.cardinality();
+  }
+
+  /**
+   * @return the number of closed Cells known to be mines
+   */
+  public int getMineCount() {
+    return mines.cardinality();
+  }
+
+  // --- INCREMENTAL UPDATES ---
+
+  /**
+   * The Cell at <code>index</code> has just been opened
+   */
+  void opened(int index) {
+    frontier.clear(index);
+    safe.clear(index);
+    mines.clear(index);
+    known[index] = UNKNOWN;
+    if (!isNumber(index)) {
+      return;
+    }
+    enqueue(index);
+    for (int k = table.start(index); k < table.end(index); k++) {
+      int i = table.get(k);
+      if (isClosed(view.state(i))) {
+        frontier.set(i);
+      } else if (isNumber(i)) {
+        enqueue(i);
+      }
+    }
+  }
+
+  void enqueue(int index) {
+    if (!queued[index]) {
+      queued[index] = true;
+      queue[(head + size++) % queue.length] = index;
+    }
+  }
+
+  /**
+   * Look at queued numbers until nothing new can be deduced
+   */
+  void solve() {
+    while (size > 0) {
+      int index = queue[head];
+      head = (head + 1) % queue.length;
+      size--;
+      queued[index] = false;
+      examine(index);
+    }
+  }
+
+  /**
+   * Apply both rules to the open number at <code>index</code>
+   */
+  void examine(int index) {
+    int numA = unknownNeighbours(index, unknownA);
+    if (numA == 0) {
+      return;
+    }
+    int remA = remainingMines(index);
+    if (remA == 0) {
+      mark(unknownA, numA, SAFE, index);
+      return;
+    }
+    if (remA == numA) {
+      mark(unknownA, numA, MINE, index);
+      return;
+    }
+
+    // Pair with each other number that shares a closed neighbour
+    int numSeen = 0;
+    for (int a = 0; a < numA; a++) {
+      int u = unknownA[a];
+      for (int k = table.start(u); k < table.end(u); k++) {
+        int other = table.get(k);
+        if (other == index || !isNumber(other) || contains(seen, numSeen, other)) {
+          continue;
+        }
+        seen[numSeen++] = other;
+        if (comparePair(index, numA, remA, other)) {
+          // unknownA is stale now, so pair index with the others again later
+          enqueue(index);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Compare the number at <code>index</code> (whose unknown neighbours are in
+   * <code>unknownA</code>) with the one at <code>other</code>
+   *
+   * @return <code>true</code> if anything was deduced
+   */
+  boolean comparePair(int index, int numA, int remA, int other) {
+    int numB = unknownNeighbours(other, unknownB);
+    if (numB == 0) {
+      return false;
+    }
+    int remB = remainingMines(other);
+    int onlyA = 0;
+    for (int a = 0; a < numA; a++) {
+      if (!contains(unknownB, numB, unknownA[a])) {
+        onlyA++;
+      }
+    }
+    int onlyB = numB - (numA - onlyA);
+
+    if (remA - remB == onlyA && (onlyA > 0 || onlyB > 0)) {
+      markDifference(unknownA, numA, unknownB, numB, MINE, index, other);
+      markDifference(unknownB, numB, unknownA, numA, SAFE, index, other);
+      return true;
+    }
+    if (remB - remA == onlyB && (onlyA > 0 || onlyB > 0)) {
+      markDifference(unknownB, numB, unknownA, numA, MINE, index, other);
+      markDifference(unknownA, numA, unknownB, numB, SAFE, index, other);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Fill <code>out</code> with the closed neighbours of <code>index</code> that nothing is known
+   * about
+   *
+   * @return how many there are
+   */
+  int unknownNeighbours(int index, int[] out) {
+    int num = 0;
+    for (int k = table.start(index); k < table.end(index); k++) {
+      int i = table.get(k);
+      if (known[i] == UNKNOWN && isClosed(view.state(i))) {
+        out[num++] = i;
+      }
+    }
+    return num;
+  }
+
+  /**
+   * @return the number at <code>index</code>, less the neighbours known to be mines
+   */
+  int remainingMines(int index) {
+    int remaining = view.number(index);
+    for (int k = table.start(index); k < table.end(index); k++) {
+      if (known[table.get(k)] == MINE) {
+        remaining--;
+      }
+    }
+    return remaining;
+  }
+
+  /**
+   * Mark every Cell in <code>from</code> that is not in <code>except</code>
+   */
+  void markDifference(int[] from, int numFrom, int[] except, int numExcept, byte what, int a,
+      int b) {
+    for (int f = 0; f < numFrom; f++) {
+      if (!contains(except, numExcept, from[f])) {
+        mark(from[f], what, a, b);
+      }
+    }
+  }
+
+  void mark(int[] cells, int num, byte what, int reason) {
+    for (int c = 0; c < num; c++) {
+      mark(cells[c], what, reason, -1);
+    }
+  }
+
+  /**
+   * Record what is known about the Cell at <code>index</code>, and queue the numbers around it
+   *
+   * @param a the number it was deduced from
+   * @param b the other number, for the pair rule, or -1
+   */
+  void mark(int index, byte what, int a, int b) {
+    if (known[index] != UNKNOWN) {
+      return;
+    }
+    known[index] = what;
+    reasonA[index] = a;
+    reasonB[index] = b;
+    (what == SAFE ? safe : mines).set(index);
+    for (int k = table.start(index); k < table.end(index); k++) {
+      int i = table.get(k);
+      if (isNumber(i)) {
+        enqueue(i);
+      }
+    }
+  }
+
+  /**
+   * @return <code>true</code> if the Cell at <code>index</code> is open and showing a number
+   */
+  boolean isNumber(int index) {
+    return view.state(index).ordinal() <= CellState.OPEN8.ordinal();
+  }
+
+  /**
+   * Flagged and marked Cells are still closed
+   */
+  static boolean isClosed(CellState state) {
+    return state == CellState.FLAG0 || state == CellState.FLAG1 || state == CellState.FLAG2;
+  }
+
+  static boolean contains(int[] array, int num, int value) {
+    for (int i = 0; i < num; i++) {
+      if (array[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // --- GAME LISTENER ---
+
+  @Override
+  public void cellsChanged(ChangeSet changes) {
+    update(changes);
+  }
+
+  @Override
+  public void gameLose() {
+    ;
+  }
+
+  @Override
+  public void gameWin() {
+    ;
+  }
+
+  @Override
+  public void gameTick() {
+    ;
+  }
+
+  @Override
+  public void flagChanged() {
+    ;
+  }
+}
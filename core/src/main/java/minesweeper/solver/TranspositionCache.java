@@ -0,0 +1,153 @@
+package minesweeper.solver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of solver results, shared between threads, that forgets the least recently
+ * used entries first. Keys are usually built from Zobrist hashes (see Zobrist), so positions that
+ * come up again in another game, or after a flag is placed, are not solved twice.
+ * <p>
+ * The entries are split over a few segments by hash, each an access-ordered LinkedHashMap with
+ * its own lock, so threads looking up different keys rarely wait for each other. Each segment
+ * holds an equal share of the capacity, so eviction is least-recently-used within a segment.
+ * <p>
+ * Hits, misses and evictions are counted, to help choose a capacity.
+ *
+ * @author Namdrib
+ *
+ * @param <K> the key type
+ * @param <V> the cached results. These are shared, so must not be changed once put
+ */
+public class TranspositionCache<K, V> {
+  // Enough that the common pool's threads seldom share a lock
+  static final int SEGMENTS = 16;
+
+  private final int capacity;
+  private final Map<K, V>[] segments;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * @param capacity the most entries to keep
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public TranspositionCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    int numSegments = Math.min(SEGMENTS, capacity);
+    segments = new Map[numSegments];
+    for (int s = 0; s < numSegments; s++) {
+      // Spread the remainder over the first segments
+      int bound = capacity / numSegments + ((s < capacity % numSegments) ? 1 : 0);
+      segments[s] = new LinkedHashMap<K, V>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+          if (size() > bound) {
+            evictions.increment();
+            return true;
+          }
+          return false;
+        }
+      };
+    }
+  }
+
+  /**
+   * @return the value cached for <code>key</code>, or <code>null</code> if there is none
+   */
+  public V get(K key) {
+    Map<K, V> segment = segmentOf(key);
+    V value;
+    synchronized (segment) {
+      value = segment.get(key);
+    }
+    if (value == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return value;
+  }
+
+  /**
+   * Cache <code>value</code> for <code>key</code>, evicting the least recently used entry of its
+   * segment if it is full
+   */
+  public void put(K key, V value) {
+    Map<K, V> segment = segmentOf(key);
+    synchronized (segment) {
+      segment.put(key, value);
+    }
+  }
+
+  /**
+   * Empty the cache and reset the counters
+   */
+  public void clear() {
+    for (Map<K, V> segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+    hits.reset();
+    misses.reset();
+    evictions.reset();
+  }
+
+  /**
+   * @return the number of entries cached now
+   */
+  public int size() {
+    int size = 0;
+    for (Map<K, V> segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return the fraction of lookups that were hits, or 0 if there have been none
+   */
+  public double getHitRate() {
+    long h = getHits();
+    long total = h + getMisses();
+    return (total == 0) ? 0 : (double) h / total;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d/%d entries, %d hits, %d misses (%.1f%%), %d evictions", size(),
+        capacity, getHits(), getMisses(), 100 * getHitRate(), getEvictions());
+  }
+
+  private Map<K, V> segmentOf(K key) {
+    int h = key.hashCode();
+    h ^= h >>> 16;
+    return segments[(h & 0x7fffffff) % segments.length];
+  }
+}
@@ -0,0 +1,76 @@
+package minesweeper.game;
+
+import static org.junit.Assert.*;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.Test;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.Game.GameDifficulty;
+
+public class BoardPoolTest {
+
+  @Test
+  public void testTake() throws Exception {
+    try (BoardPool pool = new BoardPool(2)) {
+      Game g = pool.take(GameDifficulty.EXPERT, 0, 0, 0, FirstClickMode.CLASSIC);
+      assertEquals(30, g.getDimensions().x);
+      assertEquals(99, g.getNumMines());
+      assertFalse(g.isStarted());
+
+      // Refilled in the background
+      for (int i = 0; i < 100 && pool.readyCount(GameDifficulty.EXPERT, 1, 2, 3,
+          FirstClickMode.CLASSIC) < 2; i++) {
+        Thread.sleep(10);
+      }
+      assertEquals(2, pool.readyCount(GameDifficulty.EXPERT, 1, 2, 3, FirstClickMode.CLASSIC));
+      Game h = pool.take(GameDifficulty.EXPERT, 0, 0, 0, FirstClickMode.CLASSIC);
+      assertNotSame(g, h);
+      assertNotEquals(g.getBoardId(), h.getBoardId());
+
+      // Each kind of board has its own queue, and custom sizes are clamped
+      assertEquals(0, pool.readyCount(GameDifficulty.CUSTOM, 5, 5, 5, FirstClickMode.OPENING));
+      Game c = pool.take(GameDifficulty.CUSTOM, 5, 5, 5, FirstClickMode.OPENING);
+      assertEquals(9, c.getDimensions().x);
+      assertEquals(FirstClickMode.OPENING, c.getFirstClickMode());
+    }
+  }
+
+  @Test
+  public void testClose() {
+    BoardPool pool = new BoardPool(2);
+    pool.close();
+    assertNotNull(pool.take(GameDifficulty.BEGINNER, 0, 0, 0, FirstClickMode.CLASSIC));
+  }
+
+  @Test
+  public void testNoGuessSearchedAhead() throws Exception {
+    // Records each first click searched for, by whether it was searched in the background
+    Thread self = Thread.currentThread();
+    List<Integer> ahead = new CopyOnWriteArrayList<>();
+    List<Integer> live = new CopyOnWriteArrayList<>();
+    try (BoardPool pool = new BoardPool(1)) {
+      pool.setSeedSearch((w, h, m, seed, first) -> {
+        (Thread.currentThread() == self ? live : ahead).add(first);
+        return OptionalLong.empty();
+      });
+      pool.take(GameDifficulty.BEGINNER, 0, 0, 0, FirstClickMode.NO_GUESS);
+      for (int i = 0; i < 100 && pool.readyCount(GameDifficulty.BEGINNER, 0, 0, 0,
+          FirstClickMode.NO_GUESS) < 1; i++) {
+        Thread.sleep(10);
+      }
+      int middle = 4 * 9 + 4;
+      assertEquals(middle, (int) ahead.get(0));
+
+      // The middle first click uses the search done in the background, other clicks search then
+      Game g = pool.take(GameDifficulty.BEGINNER, 0, 0, 0, FirstClickMode.NO_GUESS);
+      g.getCell(middle).open(true);
+      assertTrue(live.isEmpty());
+      assertFalse(g.isGuessFree());
+      Game h = pool.take(GameDifficulty.BEGINNER, 0, 0, 0, FirstClickMode.NO_GUESS);
+      h.getCell(0).open(true);
+      assertEquals(1, live.size());
+      assertEquals(0, (int) live.get(0));
+    }
+  }
+}
@@ -0,0 +1,323 @@
+package minesweeper.game;
+
+import static minesweeper.util.MinesweeperConstants.*;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import minesweeper.cell.Cell;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.cell.CellListener;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.Game.GameDifficulty;
+
+public class GameImplTest {
+
+  GameImpl g;
+
+  /**
+   * @return a 9x9 layout with 10 mines: the right-most column and the bottom-left corner
+   */
+  static List<List<Boolean>> sampleMines() {
+    List<List<Boolean>> mines = new ArrayList<>();
+    for (int y = 0; y < 9; y++) {
+      List<Boolean> row = new ArrayList<>();
+      for (int x = 0; x < 9; x++) {
+        row.add(x == 8 || (x == 0 && y == 8));
+      }
+      mines.add(row);
+    }
+    return mines;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    g = new GameImpl();
+    g.createBoard(sampleMines());
+  }
+
+  @Test
+  public void testCascade() {
+    int[] alerts = new int[1];
+    CellListener counter = () -> alerts[0]++;
+    g.getCells().stream().forEach(r -> r.stream().forEach(c -> c.addListener(counter)));
+    List<ChangeSet> sets = new ArrayList<>();
+    g.addListener(new GameListener() {
+      public void gameLose() {}
+
+      public void gameWin() {}
+
+      public void gameTick() {}
+
+      public void flagChanged() {}
+
+      public void cellsChanged(ChangeSet changes) {
+        sets.add(changes);
+      }
+    });
+
+    g.getCells().get(3).get(3).open(true);
+    assertEquals(CellState.OPEN0, g.getCells().get(0).get(0).getCellState());
+    assertEquals(CellState.OPEN3, g.getCells().get(1).get(7).getCellState());
+    assertEquals(CellState.OPEN1, g.getCells().get(8).get(1).getCellState());
+    assertFalse(g.getCells().get(8).get(0).isOpen());
+
+    // Every non-mine Cell was opened, and announced together rather than Cell by Cell
+    assertEquals(1, sets.size());
+    assertEquals(81 - 10, sets.get(0).size());
+    assertEquals(0, alerts[0]);
+    g.setFinished();
+    assertEquals(1, g.getFinished());
+  }
+
+  @Test
+  public void testCascadeAroundFlags() {
+    Cell flagged = g.getCells().get(0).get(0);
+    Cell marked = g.getCells().get(0).get(1);
+    flagged.toggleFlag();
+    marked.toggleFlag();
+    marked.toggleFlag();
+    assertEquals(2, marked.getFlagState());
+
+    g.getCells().get(3).get(3).open(true);
+    assertFalse(flagged.isOpen());
+    assertEquals(1, flagged.getFlagState());
+    assertTrue(marked.isOpen());
+
+    // Chording onto an incorrect flag shows it as such
+    flagged.open(false);
+    assertEquals(CellState.MINE3, flagged.getCellState());
+  }
+
+  @Test
+  public void testMinesFromLayout() {
+    // Start from a board with a different mine count, so a stale count would show
+    GameImpl expert = new GameImpl(GameDifficulty.EXPERT, 0, 0, 0);
+    List<List<Boolean>> mines = sampleMines();
+    mines.get(0).set(8, false);
+    mines.get(1).set(8, false);
+    expert.createBoard(mines);
+    assertEquals(8, expert.getNumMines());
+    assertEquals(8, expert.getRemainingMines());
+
+    // Opening every safe Cell wins
+    expert.getCells().get(4).get(3).open(true);
+    expert.getCells().get(0).get(8).open(true);
+    expert.getCells().get(1).get(8).open(true);
+    assertEquals(1, expert.getFinished());
+  }
+
+  @Test
+  public void testCounts() {
+    Cell c = g.getCells().get(4).get(4);
+    assertEquals(10, g.getRemainingMines());
+    c.toggleFlag();
+    assertEquals(9, g.getRemainingMines());
+    c.toggleFlag();
+    assertEquals(10, g.getRemainingMines());
+    c.toggleFlag();
+    assertEquals(10, g.getRemainingMines());
+
+    // Opening a mine after the first click loses straight away
+    g.start();
+    g.getCells().get(0).get(8).open(true);
+    assertEquals(2, g.getFinished());
+  }
+
+  @Test
+  public void testSeededBoardId() {
+    GameImpl a = new GameImpl(GameDifficulty.EXPERT, 0, 0, 0);
+    BoardId id = a.getBoardId();
+    assertEquals(GameDifficulty.EXPERT, id.getDifficulty());
+    assertEquals(id, BoardId.parse(id.toString().toLowerCase()));
+
+    // Same ID, same mines
+    GameImpl b = new GameImpl(BoardId.parse(id.toString()));
+    for (int i = 0; i < 30 * 16; i++) {
+      assertEquals(a.getCell(i).getNumber(), b.getCell(i).getNumber());
+    }
+
+    BoardId custom = new BoardId(GameDifficulty.CUSTOM, 20, 12, 50, -1L);
+    assertEquals("C20x12x50-3W5E11264SGSF", custom.toString());
+    assertEquals(custom, BoardId.parse(custom.toString()));
+
+    // Read from a file, so not generated from a seed
+    assertNull(g.getBoardId());
+  }
+
+  @Test
+  public void testOpeningFirstClick() {
+    BoardId id = new BoardId(GameDifficulty.EXPERT, EXPERT_X, EXPERT_Y, EXPERT_MINES, 42L);
+    GameImpl a = new GameImpl(id, FirstClickMode.OPENING);
+    GameImpl b = new GameImpl(id, FirstClickMode.OPENING);
+    assertEquals(FirstClickMode.OPENING, a.getFirstClickMode());
+
+    // Nothing is placed until the first click, which always opens a region
+    int first = 5 * EXPERT_X + 7;
+    assertFalse(a.getCell(first).isMine());
+    a.getCell(first).open(true);
+    assertEquals(CellState.OPEN0, a.getCell(first).getCellState());
+    int mines = 0;
+    for (int i = 0; i < EXPERT_X * EXPERT_Y; i++) {
+      Cell c = a.getCell(i);
+      mines += c.isMine() ? 1 : 0;
+      if (!c.isMine()) {
+        assertEquals(a.countNeighbouringMines(i), c.getNumber());
+      }
+    }
+    assertEquals(EXPERT_MINES, mines);
+
+    // Same ID and first click, same mines
+    b.getCell(first).open(true);
+    for (int i = 0; i < EXPERT_X * EXPERT_Y; i++) {
+      assertEquals(a.getCell(i).getNumber(), b.getCell(i).getNumber());
+    }
+  }
+
+  @Test
+  public void testOneChangeSetPerAction() {
+    List<ChangeSet> sets = new ArrayList<>();
+    int[] wins = new int[1];
+    g.addListener(new GameListener() {
+      public void gameLose() {}
+
+      public void gameWin() {
+        wins[0]++;
+      }
+
+      public void gameTick() {}
+
+      public void flagChanged() {}
+
+      public void cellsChanged(ChangeSet changes) {
+        sets.add(changes);
+      }
+    });
+
+    g.getCells().get(0).get(7).toggleFlag();
+    assertEquals(1, sets.size());
+    assertTrue(sets.get(0).contains(7));
+
+    // The whole cascade, and the win it causes, arrive together
+    g.getCells().get(0).get(7).toggleFlag();
+    g.getCells().get(0).get(7).toggleFlag();
+    g.getCells().get(3).get(3).open(true);
+    assertEquals(4, sets.size());
+    assertEquals(81 - 10, sets.get(3).size());
+    assertFalse(sets.get(3).contains(8));
+    assertEquals(1, wins[0]);
+    assertEquals(1, g.getFinished());
+  }
+
+  @Test
+  public void testTickFromManyThreads() throws InterruptedException {
+    long[] now = {5_000_000_000L};
+    g.nanoClock = () -> now[0];
+
+    // Every listener call goes through the executor
+    AtomicInteger dispatched = new AtomicInteger();
+    g.setListenerExecutor(r -> dispatched.incrementAndGet());
+    g.start();
+    now[0] += 1_250_000_000L;
+
+    Thread[] tickers = new Thread[8];
+    for (int i = 0; i < tickers.length; i++) {
+      tickers[i] = new Thread(() -> {
+        for (int j = 0; j < 200; j++) {
+          g.tick();
+        }
+      });
+      tickers[i].start();
+    }
+    for (Thread t : tickers) {
+      t.join();
+    }
+
+    // Ticking does not move the clock, and the new second is announced exactly once
+    assertEquals(1250, g.getElapsedMillis());
+    assertEquals(1, g.getSecondsPassed());
+    assertEquals(1, dispatched.get());
+
+    // The clock is not capped, and stops when the game ends
+    now[0] += 1_000_000_000_000L;
+    assertEquals(1001, g.getSecondsPassed());
+    g.getCells().get(0).get(8).open(true);
+    now[0] += 1_000_000_000L;
+    assertEquals(2, g.getFinished());
+    assertEquals(1_001_250, g.getElapsedMillis());
+  }
+
+  @Test
+  public void testFork() {
+    g.getCells().get(0).get(8).toggleFlag();
+    PackedGameImpl copy = g.fork();
+    assertEquals(g.getStateHash(), copy.getStateHash());
+    assertEquals(g.getRemainingMines(), copy.getRemainingMines());
+    for (int i = 0; i < 81; i++) {
+      assertEquals(g.getCell(i).getCellState(), copy.getCellState(i));
+      assertEquals(g.getCell(i).getNumber(), copy.getNumber(i));
+    }
+
+    // Winning the copy leaves the original as it was
+    copy.open(copy.indexOf(3, 3), true);
+    assertEquals(1, copy.getFinished());
+    assertFalse(g.isStarted());
+    assertFalse(g.getCells().get(3).get(3).isOpen());
+    assertEquals(0, g.getFinished());
+  }
+
+  @Test
+  public void testChangesEndAfterFailure() {
+    List<ChangeSet> sets = new ArrayList<>();
+    g.addListener(new GameListener() {
+      public void gameLose() {}
+
+      public void gameWin() {}
+
+      public void gameTick() {}
+
+      public void flagChanged() {}
+
+      public void cellsChanged(ChangeSet changes) {
+        sets.add(changes);
+      }
+    });
+    Cell failing = g.getCells().get(0).get(0);
+    failing.addListener(() -> {
+      throw new IllegalStateException();
+    });
+    try {
+      failing.setFlag();
+      fail();
+    } catch (IllegalStateException ex) {
+      // The flag was set before the listener failed
+    }
+    assertEquals(1, sets.size());
+
+    // Later actions are still announced on their own
+    g.getCells().get(1).get(1).toggleFlag();
+    assertEquals(2, sets.size());
+    assertTrue(sets.get(1).contains(10));
+  }
+
+  @Test
+  public void testForkBeforeFirstClick() {
+    BoardId id = new BoardId(GameDifficulty.EXPERT, EXPERT_X, EXPERT_Y, EXPERT_MINES, 7L);
+    Game a = new GameImpl(id, FirstClickMode.OPENING);
+    Game b = a.fork();
+    PackedGameImpl c = PackedGameImpl.copyOf(a);
+
+    // The copies place the same mines on the same first click
+    int first = 3 * EXPERT_X + 20;
+    a.getCell(first).open(true);
+    b.getCell(first).open(true);
+    c.open(first, true);
+    for (int i = 0; i < EXPERT_X * EXPERT_Y; i++) {
+      assertEquals(a.getCell(i).getNumber(), b.getCell(i).getNumber());
+      assertEquals(a.getCell(i).getCellState(), c.getCellState(i));
+    }
+    assertEquals(a.getStateHash(), c.getStateHash());
+  }
+}
@@ -0,0 +1,180 @@
+package minesweeper.game;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import minesweeper.cell.Cell.CellState;
+
+public class InfiniteGameTest {
+  static final int S = InfiniteGame.CHUNK_SIZE;
+
+  /**
+   * Check every safe Cell in the rectangle has the number of mines around it
+   */
+  static void assertNumbers(InfiniteGame g, int x0, int y0, int x1, int y1) {
+    for (int y = y0; y <= y1; y++) {
+      for (int x = x0; x <= x1; x++) {
+        if (g.isMine(x, y)) {
+          continue;
+        }
+        int count = 0;
+        for (int n = y - 1; n <= y + 1; n++) {
+          for (int m = x - 1; m <= x + 1; m++) {
+            count += g.isMine(m, n) ? 1 : 0;
+          }
+        }
+        assertEquals("(" + x + ", " + y + ")", count, g.getNumber(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testBorderNumbers() {
+    InfiniteGame g = new InfiniteGame(1);
+    // Around the corner where four chunks meet, and along the borders of the next ones
+    assertNumbers(g, -3, -3, S + 2, S + 2);
+
+    // After the first click clears mines in chunks that are already loaded
+    g.touch(S - 4, -4, 8, 8);
+    g.open(S - 1, 0);
+    assertNumbers(g, S - 4, -4, S + 4, 4);
+  }
+
+  @Test
+  public void testSpillAndReload() {
+    InfiniteGame g = new InfiniteGame(2, InfiniteGame.DEFAULT_DENSITY, 0);
+    g.open(S / 2, S / 2);
+    int flagged = -1;
+    int marked = -1;
+    for (int i = 0; i < S * S && marked < 0; i++) {
+      int x = i % S;
+      int y = i / S;
+      if (g.getCellState(x, y) != CellState.FLAG0) {
+        continue;
+      }
+      if (flagged < 0) {
+        g.toggleFlag(x, y);
+        flagged = i;
+      } else {
+        g.toggleFlag(x, y);
+        g.toggleFlag(x, y);
+        marked = i;
+      }
+    }
+    assertTrue(marked >= 0);
+
+    CellState[] before = new CellState[S * S];
+    for (int i = 0; i < S * S; i++) {
+      before[i] = g.getCellState(i % S, i / S);
+    }
+    long opened = g.getOpened();
+
+    // Push chunk (0, 0) out of the LRU
+    g.touch(100 * S, 0, 2 * InfiniteGame.MIN_LOADED_CHUNKS * S, S);
+    assertTrue(g.getLoadedChunks() <= InfiniteGame.MIN_LOADED_CHUNKS);
+    assertFalse(g.loaded.containsKey(InfiniteGame.key(0, 0)));
+    assertTrue(g.getSpilledChunks() > 0);
+
+    for (int i = 0; i < S * S; i++) {
+      assertEquals(before[i], g.getCellState(i % S, i / S));
+    }
+    assertEquals(1, g.getFlagState(flagged % S, flagged / S));
+    assertEquals(2, g.getFlagState(marked % S, marked / S));
+    assertEquals(1, g.getFlags());
+    assertEquals(opened, g.getOpened());
+    assertNumbers(g, -1, -1, S, S);
+  }
+
+  @Test
+  public void testFirstClickClear() {
+    for (long seed = 0; seed < 20; seed++) {
+      InfiniteGame g = new InfiniteGame(seed);
+      int x = (int) seed * 7 - 40;
+      int y = S - 1;
+      // Half the time the Cells around the click are already loaded, as if on screen
+      if (seed % 2 == 0) {
+        g.touch(x - 2, y - 2, 5, 5);
+      }
+      g.open(x, y);
+      assertEquals(0, g.getFinished());
+      for (int n = y - 1; n <= y + 1; n++) {
+        for (int m = x - 1; m <= x + 1; m++) {
+          assertFalse(g.isMine(m, n));
+          assertTrue(g.isOpen(m, n));
+        }
+      }
+      assertEquals(0, g.getNumber(x, y));
+      assertNumbers(g, x - 3, y - 3, x + 3, y + 3);
+    }
+  }
+
+  @Test
+  public void testOpenFlagBeforeStart() {
+    InfiniteGame g = new InfiniteGame(3);
+    g.toggleFlag(5, 5);
+    g.open(5, 5);
+    // The flag stays, and the first click is still to come
+    assertFalse(g.isStarted());
+    assertEquals(CellState.FLAG1, g.getCellState(5, 5));
+
+    g.open(-20, 40);
+    assertTrue(g.isStarted());
+    assertFalse(g.isMine(-20, 40));
+  }
+
+  @Test
+  public void testSameSeed() {
+    InfiniteGame a = new InfiniteGame(42);
+    InfiniteGame b = new InfiniteGame(42);
+    InfiniteGame c = new InfiniteGame(43);
+    boolean differs = false;
+    for (int y = -S; y < S; y++) {
+      for (int x = -S; x < S; x++) {
+        assertEquals(a.isMine(x, y), b.isMine(x, y));
+        differs |= a.isMine(x, y) != c.isMine(x, y);
+      }
+    }
+    assertTrue(differs);
+
+    // The same first click clears the same Cells
+    a.open(3, 3);
+    b.open(3, 3);
+    assertEquals(a.getOpened(), b.getOpened());
+    for (int y = -S; y < S; y++) {
+      for (int x = -S; x < S; x++) {
+        assertEquals(a.getCellState(x, y), b.getCellState(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testCascadeAcrossBorders() {
+    InfiniteGame g = new InfiniteGame(5);
+    // (0, 0) is the corner of four chunks, and is a zero after the first click
+    g.open(0, 0);
+    assertTrue(g.isOpen(-1, -1));
+    assertTrue(g.isOpen(-1, 0));
+    assertTrue(g.isOpen(0, -1));
+    assertTrue(g.isOpen(0, 0));
+
+    // Every open zero has all of its neighbours open, whichever chunk they are in
+    long open = 0;
+    for (int y = -3 * S; y < 3 * S; y++) {
+      for (int x = -3 * S; x < 3 * S; x++) {
+        if (!g.isOpen(x, y)) {
+          continue;
+        }
+        open++;
+        if (g.getNumber(x, y) != 0) {
+          continue;
+        }
+        for (int n = y - 1; n <= y + 1; n++) {
+          for (int m = x - 1; m <= x + 1; m++) {
+            assertTrue("(" + m + ", " + n + ")", g.isOpen(m, n));
+          }
+        }
+      }
+    }
+    assertTrue(open <= g.getOpened());
+    assertEquals(0, g.getFinished());
+  }
+}
@@ -0,0 +1,32 @@
+package minesweeper.game;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.Test;
+
+public class MineGeneratorTest {
+
+  @Test
+  public void testPlaceDistinct() {
+    MineGenerator mg = new MineGenerator(new Random(1));
+    // Maximum density on the largest board
+    int[] mines = mg.place(30 * 24, 29 * 23);
+    assertEquals(29 * 23, mines.length);
+    boolean[] seen = new boolean[30 * 24];
+    for (int mine : mines) {
+      assertFalse(seen[mine]);
+      seen[mine] = true;
+    }
+  }
+
+  @Test
+  public void testPlaceRepeatable() {
+    assertArrayEquals(new MineGenerator(new Random(7)).place(81, 10),
+        new MineGenerator(new Random(7)).place(81, 10));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPlaceTooMany() {
+    new MineGenerator().place(81, 82);
+  }
+}
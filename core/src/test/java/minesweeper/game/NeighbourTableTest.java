@@ -0,0 +1,68 @@
+package minesweeper.game;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class NeighbourTableTest {
+
+  static List<Integer> neighbours(NeighbourTable table, int index) {
+    List<Integer> out = new ArrayList<>();
+    table.forEach(index, out::add);
+    return out;
+  }
+
+  @Test
+  public void testCounts() {
+    NeighbourTable table = NeighbourTable.of(4, 3);
+    assertEquals(4, table.getWidth());
+    assertEquals(3, table.getHeight());
+    // Corners
+    assertEquals(3, table.count(0));
+    assertEquals(3, table.count(3));
+    assertEquals(3, table.count(8));
+    assertEquals(3, table.count(11));
+    // Edges
+    assertEquals(5, table.count(1));
+    assertEquals(5, table.count(4));
+    assertEquals(5, table.count(7));
+    assertEquals(5, table.count(10));
+    // Interior
+    assertEquals(8, table.count(5));
+    assertEquals(8, table.count(6));
+
+    assertEquals(Arrays.asList(1, 4, 5), neighbours(table, 0));
+    assertEquals(Arrays.asList(0, 1, 2, 4, 6, 8, 9, 10), neighbours(table, 5));
+    for (int i = 0; i < 12; i++) {
+      assertEquals(table.count(i), table.end(i) - table.start(i));
+      for (int k = table.start(i); k < table.end(i); k++) {
+        assertEquals(neighbours(table, i).get(k - table.start(i)).intValue(), table.get(k));
+      }
+    }
+  }
+
+  @Test
+  public void testThinBoards() {
+    NeighbourTable row = NeighbourTable.of(5, 1);
+    assertEquals(Arrays.asList(1), neighbours(row, 0));
+    assertEquals(Arrays.asList(1, 3), neighbours(row, 2));
+    assertEquals(Arrays.asList(3), neighbours(row, 4));
+
+    NeighbourTable column = NeighbourTable.of(1, 5);
+    assertEquals(Arrays.asList(1), neighbours(column, 0));
+    assertEquals(Arrays.asList(1, 3), neighbours(column, 2));
+    assertEquals(Arrays.asList(3), neighbours(column, 4));
+
+    assertEquals(0, NeighbourTable.of(1, 1).count(0));
+  }
+
+  @Test
+  public void testShared() {
+    assertSame(NeighbourTable.of(9, 9), NeighbourTable.of(9, 9));
+    assertNotSame(NeighbourTable.of(9, 8), NeighbourTable.of(8, 9));
+    assertSame(new PackedGameImpl(Game.GameDifficulty.BEGINNER, 0, 0, 0).getNeighbourTable(),
+        NeighbourTable.of(9, 9));
+  }
+}
@@ -0,0 +1,260 @@
+package minesweeper.game;
+
+import static minesweeper.util.MinesweeperConstants.*;
+import static org.junit.Assert.*;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import minesweeper.cell.Cell;
+import minesweeper.cell.Cell.CellState;
+import minesweeper.game.Game.GameDifficulty;
+
+public class PackedGameImplTest {
+
+  PackedGameImpl g;
+
+  /**
+   * @return a 9x9 layout with mines down the right-most column (except the bottom-right Cell),
+   *         and one in the bottom-left corner
+   */
+  static List<List<Boolean>> sampleMines() {
+    List<List<Boolean>> mines = new ArrayList<>();
+    for (int y = 0; y < 9; y++) {
+      List<Boolean> row = new ArrayList<>();
+      for (int x = 0; x < 9; x++) {
+        row.add((x == 8 && y < 8) || (x == 0 && y == 8));
+      }
+      mines.add(row);
+    }
+    return mines;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    g = new PackedGameImpl();
+    g.createBoard(sampleMines());
+  }
+
+  @Test
+  public void testCreateBoard() {
+    assertEquals(9, g.getWidth());
+    assertEquals(9, g.getHeight());
+    assertEquals(9, g.getNumMines());
+    assertTrue(g.isMine(g.indexOf(8, 0)));
+    assertEquals(3, g.getNumber(g.indexOf(7, 1)));
+    assertEquals(2, g.getNumber(g.indexOf(7, 0)));
+    assertEquals(0, g.getNumber(g.indexOf(3, 3)));
+    assertEquals(1, g.getNumber(g.indexOf(1, 8)));
+    assertEquals(CellState.FLAG0, g.getCellState(0));
+  }
+
+  @Test
+  public void testCellViews() {
+    Cell c = g.getCells().get(1).get(7);
+    assertSame(c, g.getCell(g.indexOf(7, 1)));
+    assertEquals(3, c.getNumber());
+    assertEquals(7, (int) c.getPoint().getX());
+    assertEquals(1, (int) c.getPoint().getY());
+    assertEquals(8, g.getNeighboursOf(c).size());
+    assertEquals(3, g.getNeighboursOf(g.getCell(0)).size());
+  }
+
+  @Test
+  public void testClampedBoardId() {
+    // Too wide and too short: both engines record the size actually played
+    BoardId id = new BoardId(GameDifficulty.CUSTOM, 100, 3, 20, 7L);
+    PackedGameImpl packed = new PackedGameImpl(id);
+    GameImpl plain = new GameImpl(id);
+    assertEquals(plain.getBoardId(), packed.getBoardId());
+    assertEquals(MAX_DIM_X, packed.getBoardId().getWidth());
+    assertEquals(MIN_DIM_Y, packed.getBoardId().getHeight());
+    for (int i = 0; i < MAX_DIM_X * MIN_DIM_Y; i++) {
+      assertEquals(plain.getCell(i).getNumber(), packed.getNumber(i));
+    }
+  }
+
+  @Test
+  public void testCellViewSetPoint() {
+    Cell c = g.getCell(g.indexOf(7, 1));
+    try {
+      c.setPoint(new Point(0, 0));
+      fail("a view's position is fixed by its index");
+    } catch (UnsupportedOperationException ex) {
+      ;
+    }
+    assertEquals(7, (int) c.getPoint().getX());
+    assertEquals(1, (int) c.getPoint().getY());
+  }
+
+  @Test
+  public void testOpenCascade() {
+    g.open(g.indexOf(3, 3), true);
+    assertTrue(g.isStarted());
+    assertEquals(CellState.OPEN0, g.getCellState(g.indexOf(0, 0)));
+    assertEquals(CellState.OPEN3, g.getCellState(g.indexOf(7, 1)));
+    assertFalse(g.isOpen(g.indexOf(8, 0)));
+    assertFalse(g.isOpen(g.indexOf(0, 8)));
+
+    // Only the bottom-right Cell is left
+    g.setFinished();
+    assertEquals(0, g.getFinished());
+    g.open(g.indexOf(8, 8), true);
+    g.setFinished();
+    assertEquals(1, g.getFinished());
+  }
+
+  @Test
+  public void testOpenFlagged() {
+    g.toggleFlag(g.indexOf(0, 0));
+    assertEquals(1, g.getFlagState(g.indexOf(0, 0)));
+    assertEquals(8, g.getRemainingMines());
+
+    // The cascade goes around the flag
+    g.open(g.indexOf(3, 3), true);
+    assertFalse(g.isOpen(g.indexOf(0, 0)));
+    assertEquals(1, g.getFlagState(g.indexOf(0, 0)));
+
+    // An incorrect flag is shown when opened indirectly
+    g.open(g.indexOf(0, 0), false);
+    assertEquals(CellState.MINE3, g.getCellState(g.indexOf(0, 0)));
+    assertEquals(0, g.getFlagState(g.indexOf(0, 0)));
+  }
+
+  @Test
+  public void testToggleFlag() {
+    int i = g.indexOf(4, 4);
+    g.toggleFlag(i);
+    assertEquals(CellState.FLAG1, g.getCellState(i));
+    g.toggleFlag(i);
+    assertEquals(CellState.FLAG2, g.getCellState(i));
+    g.toggleFlag(i);
+    assertEquals(CellState.FLAG0, g.getCellState(i));
+    // The number survives state changes
+    assertEquals(0, g.getNumber(i));
+  }
+
+  @Test
+  public void testFirstClickMineRelocated() {
+    int i = g.indexOf(8, 0);
+    g.open(i, true);
+    assertFalse(g.isMine(i));
+    assertTrue(g.isOpen(i));
+    assertTrue(g.isMine(0));
+    assertEquals(9, g.getNumMines());
+    assertEquals(1, g.getNumber(1));
+    g.setFinished();
+    assertEquals(0, g.getFinished());
+  }
+
+  @Test
+  public void testOpenMineLoses() {
+    g.open(g.indexOf(3, 3), true);
+    g.open(g.indexOf(8, 0), true);
+    assertEquals(CellState.MINE2, g.getCellState(g.indexOf(8, 0)));
+    assertEquals(CellState.MINE1, g.getCellState(g.indexOf(0, 8)));
+    g.setFinished();
+    assertEquals(2, g.getFinished());
+  }
+
+  @Test
+  public void testBoardView() {
+    BoardView view = g.getBoardView();
+    assertEquals(9, view.width());
+    assertEquals(9, view.height());
+    assertEquals(3, view.number(g.indexOf(7, 1)));
+
+    List<Integer> mines = new ArrayList<>();
+    view.forEachMine(mines::add);
+    assertEquals(9, mines.size());
+    assertEquals(g.indexOf(8, 0), (int) mines.get(0));
+    assertEquals(g.indexOf(0, 8), (int) mines.get(8));
+
+    // The view follows the game
+    g.open(g.indexOf(3, 3), true);
+    assertEquals(CellState.OPEN0, view.state(0));
+    int[] open = new int[1];
+    view.forEachOpen(i -> open[0]++);
+    assertEquals(81 - 9 - 1, open[0]);
+  }
+
+  @Test
+  public void testStateHash() {
+    long closed = g.getStateHash();
+    assertEquals(Zobrist.closed(9, 9), closed);
+    // Flags and marks are not part of it
+    g.toggleFlag(g.indexOf(4, 4));
+    assertEquals(closed, g.getStateHash());
+    g.toggleFlag(g.indexOf(4, 4));
+    assertEquals(closed, g.getStateHash());
+    while (g.getFlagState(g.indexOf(4, 4)) != 0) {
+      g.toggleFlag(g.indexOf(4, 4));
+    }
+
+    g.open(g.indexOf(3, 3), true);
+    long opened = g.getStateHash();
+    assertNotEquals(closed, opened);
+
+    // The same Cells showing the same states hash the same
+    PackedGameImpl other = new PackedGameImpl();
+    other.createBoard(sampleMines());
+    other.open(g.indexOf(3, 3), true);
+    assertEquals(opened, other.getStateHash());
+  }
+
+  @Test
+  public void testFork() {
+    int[] alerts = new int[1];
+    g.addListener(new GameListener() {
+      @Override
+      public void gameLose() {}
+
+      @Override
+      public void gameWin() {}
+
+      @Override
+      public void gameTick() {}
+
+      @Override
+      public void flagChanged() {}
+
+      @Override
+      public void cellsChanged(ChangeSet changes) {
+        alerts[0]++;
+      }
+    });
+    g.open(g.indexOf(3, 3), true);
+    PackedGameImpl copy = g.fork();
+    assertEquals(g.getStateHash(), copy.getStateHash());
+    assertEquals(g.getBoardId(), copy.getBoardId());
+
+    // Neither game sees the other's moves, and the copy has no listeners
+    copy.toggleFlag(copy.indexOf(8, 0));
+    copy.open(copy.indexOf(0, 8), true);
+    assertEquals(2, copy.getFinished());
+    assertEquals(0, g.getFinished());
+    assertEquals(0, g.getFlagState(g.indexOf(8, 0)));
+    assertFalse(g.isOpen(g.indexOf(0, 8)));
+    assertEquals(1, alerts[0]);
+
+    g.open(g.indexOf(8, 8), true);
+    assertEquals(1, g.getFinished());
+    assertFalse(copy.isOpen(copy.indexOf(8, 8)));
+  }
+
+  @Test
+  public void testForkDeferred() {
+    PackedGameImpl live = new PackedGameImpl(Game.GameDifficulty.EXPERT, 0, 0, 0, 7,
+        Game.FirstClickMode.OPENING);
+    PackedGameImpl copy = live.fork();
+    assertFalse(copy.isStarted());
+    live.open(200, true);
+    copy.open(200, true);
+    // The copy places the same mines on the same first click
+    for (int i = 0; i < 480; i++) {
+      assertEquals(live.isMine(i), copy.isMine(i));
+      assertEquals(live.getCellState(i), copy.getCellState(i));
+    }
+  }
+}
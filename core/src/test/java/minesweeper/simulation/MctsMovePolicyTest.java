@@ -0,0 +1,73 @@
+package minesweeper.simulation;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.Test;
+import minesweeper.game.BoardId;
+import minesweeper.game.Game;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.GameImpl;
+import minesweeper.game.PackedGameImpl;
+
+public class MctsMovePolicyTest {
+
+  /**
+   * A policy that searches a fixed number of rollouts on one thread, so it plays the same way
+   * every time
+   */
+  static MctsMovePolicy fixed() {
+    MctsMovePolicy policy = new MctsMovePolicy(60000);
+    policy.setMaxRollouts(30);
+    policy.setParallelism(1);
+    return policy;
+  }
+
+  @Test
+  public void testPlaysToTheEnd() {
+    int wins = 0;
+    for (int seed = 0; seed < 10; seed++) {
+      PackedGameImpl g = new PackedGameImpl(GameDifficulty.BEGINNER, 0, 0, 0, seed,
+          FirstClickMode.OPENING);
+      MctsMovePolicy policy = fixed();
+      policy.play(g, new Random(seed));
+      assertNotEquals(0, g.getFinished());
+      wins += (g.getFinished() == 1) ? 1 : 0;
+      assertTrue(policy.getLastRollouts() <= 30);
+    }
+    // Beginner boards seldom need a guess that loses
+    assertTrue(wins >= 7);
+  }
+
+  @Test
+  public void testRepeatable() {
+    for (int seed = 0; seed < 3; seed++) {
+      PackedGameImpl a = new PackedGameImpl(GameDifficulty.INTERMEDIATE, 0, 0, 0, seed,
+          FirstClickMode.OPENING);
+      PackedGameImpl b = a.fork();
+      fixed().play(a, new Random(seed));
+      fixed().play(b, new Random(seed));
+      assertEquals(a.getFinished(), b.getFinished());
+      assertEquals(a.getStateHash(), b.getStateHash());
+    }
+  }
+
+  @Test
+  public void testLiveGame() {
+    // Cells and their listeners are used, as the UI's game would be
+    Game g = new GameImpl(BoardId.of(GameDifficulty.BEGINNER, 9, 9, 10, 4),
+        FirstClickMode.OPENING);
+    g.getCell(80).toggleFlag();
+    fixed().play(g, new Random(4));
+    assertNotEquals(0, g.getFinished());
+  }
+
+  @Test
+  public void testInSimulation() {
+    Simulation s = new Simulation(BoardId.parse("B-1"), 8);
+    s.setFirstClickMode(FirstClickMode.OPENING);
+    s.setPolicies(MctsMovePolicyTest::fixed);
+    SimulationResult r = s.run();
+    assertEquals(0, r.getUnfinished());
+  }
+}
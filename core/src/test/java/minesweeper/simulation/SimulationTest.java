@@ -0,0 +1,41 @@
+package minesweeper.simulation;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import minesweeper.game.BoardId;
+import minesweeper.game.Game.FirstClickMode;
+
+public class SimulationTest {
+
+  @Test
+  public void testRunIsRepeatable() {
+    Simulation one = new Simulation(BoardId.parse("B-1"), 500);
+    one.setParallelism(1);
+    SimulationResult a = one.run();
+    assertEquals(500, a.getGames());
+    assertEquals(500, a.getWins() + a.getLosses() + a.getUnfinished());
+    assertEquals(0, a.getUnfinished());
+    assertTrue(a.getLosses() > 0);
+
+    // The same games, however many threads play them
+    Simulation many = new Simulation(BoardId.parse("B-1"), 500);
+    many.setParallelism(4);
+    SimulationResult b = many.run();
+    for (int i = 0; i < 500; i++) {
+      assertEquals(a.getOutcome(i), b.getOutcome(i));
+      assertEquals(a.getMoves(i), b.getMoves(i));
+    }
+  }
+
+  @Test
+  public void testGiveUp() {
+    Simulation s = new Simulation(BoardId.parse("I-2"), 10);
+    s.setFirstClickMode(FirstClickMode.OPENING);
+    s.setPolicies(() -> (game, random) -> game.isStarted() ? -1 : 0);
+    SimulationResult r = s.run();
+    assertEquals(10, r.getUnfinished());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(1, r.getMoves(i));
+    }
+  }
+}
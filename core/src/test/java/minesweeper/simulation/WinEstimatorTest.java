@@ -0,0 +1,92 @@
+package minesweeper.simulation;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.PackedGameImpl;
+import minesweeper.simulation.WinEstimator.Estimate;
+import minesweeper.solver.Solver;
+
+public class WinEstimatorTest {
+  static final int ROLLOUTS = 2 * WinEstimator.BATCH;
+
+  /**
+   * Wait for the last estimate of the position with <code>hash</code>
+   */
+  static Estimate await(BlockingQueue<Estimate> estimates, long hash, int rollouts)
+      throws InterruptedException {
+    while (true) {
+      Estimate e = estimates.poll(60, TimeUnit.SECONDS);
+      assertNotNull("no estimate in time", e);
+      if (e.getStateHash() == hash && e.getRollouts() == rollouts) {
+        return e;
+      }
+    }
+  }
+
+  @Test
+  public void testEstimate() throws InterruptedException {
+    BlockingQueue<Estimate> estimates = new LinkedBlockingQueue<>();
+    PackedGameImpl g = new PackedGameImpl(GameDifficulty.INTERMEDIATE, 0, 0, 0, 3,
+        FirstClickMode.OPENING);
+    try (WinEstimator estimator = new WinEstimator(estimates::add)) {
+      estimator.setMaxRollouts(ROLLOUTS);
+      estimator.setSeed(1);
+
+      // Nothing to estimate before the first click
+      estimator.watch(g);
+      assertNull(estimates.poll(100, TimeUnit.MILLISECONDS));
+
+      g.open(0, true);
+      Estimate first = await(estimates, g.getStateHash(), ROLLOUTS);
+      assertTrue(first.getProbability() > 0 && first.getProbability() <= 1);
+      assertTrue(first.getStandardError() > 0 || first.getProbability() == 1);
+      // The game itself is untouched
+      assertEquals(0, g.getFinished());
+
+      Solver solver = new Solver(g);
+      g.addListener(solver);
+      int safe = solver.nextSafe();
+      assertTrue(safe >= 0);
+
+      // Flags change nothing the estimate depends on
+      g.toggleFlag(safe);
+      assertNull(estimates.poll(100, TimeUnit.MILLISECONDS));
+      while (g.getFlagState(safe) != 0) {
+        g.toggleFlag(safe);
+      }
+
+      g.open(safe, true);
+      Estimate second = await(estimates, g.getStateHash(), ROLLOUTS);
+      assertNotEquals(first.getStateHash(), second.getStateHash());
+
+      // Once the game is over, the answer is certain
+      WinEstimator.playOut(g, solver, new Random(3));
+      Estimate last = await(estimates, g.getStateHash(), 0);
+      assertEquals((g.getFinished() == 1) ? 1 : 0, last.getProbability(), 0);
+    }
+  }
+
+  @Test
+  public void testRepeatable() throws InterruptedException {
+    double[] p = new double[2];
+    for (int run = 0; run < 2; run++) {
+      BlockingQueue<Estimate> estimates = new LinkedBlockingQueue<>();
+      PackedGameImpl g = new PackedGameImpl(GameDifficulty.BEGINNER, 0, 0, 0, 5,
+          FirstClickMode.OPENING);
+      g.open(40, true);
+      try (WinEstimator estimator = new WinEstimator(estimates::add)) {
+        estimator.setMaxRollouts(ROLLOUTS);
+        estimator.setSeed(7);
+        estimator.watch(g);
+        p[run] = await(estimates, g.getStateHash(), ROLLOUTS).getProbability();
+      }
+    }
+    assertEquals(p[0], p[1], 0);
+  }
+}
@@ -0,0 +1,81 @@
+package minesweeper.solver;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import minesweeper.game.Game;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.PackedGameImpl;
+
+public class HinterTest {
+
+  @Test
+  public void testSafeHint() {
+    Game g = new PackedGameImpl();
+    g.createBoard(SolverTest.twoMines());
+    Hinter h = new Hinter(g);
+    g.addListener(h);
+
+    // Before the first click, the middle
+    assertEquals(40, h.next().getIndex());
+    g.getCell(9 * 5).open(true);
+
+    // (3, 0) is safe because of a number below it, once the mines either side are known
+    Hint hint = h.next();
+    assertEquals(3, hint.getIndex());
+    assertTrue(hint.isSafe());
+    assertEquals(1, hint.getReasons().length);
+    assertEquals(1, g.getCell(hint.getReasons()[0]).getPoint().y);
+    g.getCell(3).open(true);
+    assertEquals(1, g.getFinished());
+    assertNull(h.next());
+  }
+
+  @Test
+  public void testFlaggedSafeCell() {
+    Game g = new PackedGameImpl();
+    g.createBoard(SolverTest.twoMines());
+    Hinter h = new Hinter(g);
+    g.addListener(h);
+    g.getCell(9 * 5).open(true);
+
+    // A wrong flag on the only safe Cell: nothing is left to open but mines
+    g.getCell(3).toggleFlag();
+    assertNull(h.next());
+    while (g.getCell(3).getFlagState() != 0) {
+      g.getCell(3).toggleFlag();
+    }
+    assertEquals(3, h.next().getIndex());
+
+    // With other safe Cells about, one of those instead
+    PackedGameImpl p = new PackedGameImpl(GameDifficulty.EXPERT, 0, 0, 0, 1,
+        FirstClickMode.OPENING);
+    h = new Hinter(p);
+    p.addListener(h);
+    p.open(200, true);
+    int first = h.next().getIndex();
+    p.toggleFlag(first);
+    Hint hint = h.next();
+    assertNotEquals(first, hint.getIndex());
+    assertTrue(hint.isSafe());
+    assertFalse(p.isMine(hint.getIndex()));
+  }
+
+  @Test
+  public void testFollowingHintsWins() {
+    for (long seed = 0; seed < 20; seed++) {
+      PackedGameImpl g = new PackedGameImpl(GameDifficulty.INTERMEDIATE, 0, 0, 0, seed,
+          FirstClickMode.OPENING);
+      Hinter h = new Hinter(g);
+      g.addListener(h);
+      while (g.getFinished() == 0) {
+        Hint hint = h.next();
+        assertTrue(hint.getMineProbability() >= 0 && hint.getMineProbability() < 1);
+        if (hint.isSafe() && g.isStarted()) {
+          assertFalse(g.isMine(hint.getIndex()));
+        }
+        g.open(hint.getIndex(), true);
+      }
+    }
+  }
+}
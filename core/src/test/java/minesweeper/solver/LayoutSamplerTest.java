@@ -0,0 +1,58 @@
+package minesweeper.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.Test;
+import minesweeper.game.Game;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.PackedGameImpl;
+
+public class LayoutSamplerTest {
+
+  @Test
+  public void testLayoutsFit() {
+    Random r = new Random(5);
+    for (int n = 0; n < 10; n++) {
+      PackedGameImpl g = new PackedGameImpl(GameDifficulty.EXPERT, 0, 0, 0, r.nextLong(),
+          Game.FirstClickMode.OPENING);
+      g.open(r.nextInt(480), true);
+      LayoutSampler sampler = new LayoutSampler(g);
+      boolean[] mines = new boolean[sampler.size()];
+      for (int s = 0; s < 20; s++) {
+        sampler.sample(r, mines);
+        PackedGameImpl copy = g.fork();
+        copy.replaceHiddenMines(mines);
+        assertEquals(99, copy.getNumMines());
+        // Every open number is still right
+        for (int i = 0; i < 480; i++) {
+          if (g.isOpen(i)) {
+            assertEquals(g.getNumber(i), copy.getNumber(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testUniform() {
+    PackedGameImpl g = new PackedGameImpl(GameDifficulty.EXPERT, 0, 0, 0, 3,
+        Game.FirstClickMode.OPENING);
+    g.open(200, true);
+    double[] p = new ProbabilityEngine(g).compute();
+    LayoutSampler sampler = new LayoutSampler(g);
+    boolean[] mines = new boolean[sampler.size()];
+    double[] seen = new double[480];
+    Random r = new Random(1);
+    int n = 20000;
+    for (int s = 0; s < n; s++) {
+      sampler.sample(r, mines);
+      for (int i = 0; i < 480; i++) {
+        seen[i] += mines[i] ? 1 : 0;
+      }
+    }
+    // Each Cell is a mine about as often as its probability says, to within 5 standard errors
+    for (int i = 0; i < 480; i++) {
+      assertEquals(p[i], seen[i] / n, 5 * Math.sqrt(p[i] * (1 - p[i]) / n) + 1e-9);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package minesweeper.solver;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.Test;
+import minesweeper.game.BoardView;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.PackedGameImpl;
+
+public class MatrixSolverTest {
+
+  @Test
+  public void testDeductionsAreSound() {
+    Random r = new Random(13);
+    int extra = 0;
+    for (int n = 0; n < 200; n++) {
+      PackedGameImpl g = new PackedGameImpl(GameDifficulty.CUSTOM, 30, 24, 130, r.nextLong(),
+          FirstClickMode.OPENING);
+      g.open(r.nextInt(30 * 24), true);
+      Solver rules = new Solver(g);
+      MatrixSolver s = new MatrixSolver(g);
+      g.addListener(rules);
+      g.addListener(s);
+
+      while (g.getFinished() == 0 && s.nextSafe() >= 0) {
+        BoardView view = g.getBoardView();
+        s.forEachSafe(i -> assertFalse(view.isMine(i)));
+        s.forEachMine(i -> assertTrue(view.isMine(i)));
+        // Everything the rules find, and sometimes more
+        rules.forEachSafe(i -> assertTrue(s.isSafe(i)));
+        rules.forEachMine(i -> assertTrue(s.isMine(i)));
+        if (rules.nextSafe() < 0) {
+          extra++;
+          assertTrue(s.getReasons(s.nextSafe()).length > 0);
+        }
+        g.open(s.nextSafe(), true);
+      }
+      assertNotEquals(2, g.getFinished());
+    }
+    assertTrue(extra > 0);
+  }
+}
@@ -0,0 +1,76 @@
+package minesweeper.solver;
+
+import static org.junit.Assert.*;
+import java.util.OptionalLong;
+import org.junit.Test;
+import minesweeper.game.BoardId;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.GameImpl;
+import minesweeper.game.PackedGameImpl;
+import minesweeper.simulation.Simulation;
+import minesweeper.simulation.SimulationResult;
+import minesweeper.simulation.SolverMovePolicy;
+
+public class NoGuessGeneratorTest {
+
+  @Test
+  public void testFindSeed() {
+    for (long seed = 0; seed < 5; seed++) {
+      OptionalLong found = NoGuessGenerator.findSeed(30, 16, 99, seed, 200, Long.MAX_VALUE);
+      assertTrue(found.isPresent());
+      assertTrue(NoGuessGenerator.isNoGuess(30, 16, 99, found.getAsLong(), 200));
+      // The same board every time
+      assertEquals(found, NoGuessGenerator.findSeed(30, 16, 99, seed, 200, Long.MAX_VALUE));
+    }
+  }
+
+  @Test
+  public void testTimeout() {
+    // Too many mines for any board to be won without guessing, so only the time limit stops it
+    long start = System.nanoTime();
+    assertFalse(NoGuessGenerator.findSeed(30, 16, 400, 1, 200, 50).isPresent());
+    assertTrue(System.nanoTime() - start < 10_000_000_000L);
+  }
+
+  @Test
+  public void testFallback() {
+    // Without a board from the search, NO_GUESS plays the OPENING board for the same seed
+    PackedGameImpl g = new PackedGameImpl(GameDifficulty.EXPERT, 0, 0, 0, 9L,
+        FirstClickMode.NO_GUESS);
+    g.setSeedSearch((w, h, m, seed, first) -> OptionalLong.empty());
+    PackedGameImpl opening = new PackedGameImpl(GameDifficulty.EXPERT, 0, 0, 0, 9L,
+        FirstClickMode.OPENING);
+    g.open(200, true);
+    opening.open(200, true);
+    assertFalse(g.isGuessFree());
+    for (int i = 0; i < 30 * 16; i++) {
+      assertEquals(opening.getNumber(i), g.getNumber(i));
+    }
+  }
+
+  @Test
+  public void testNoGuessGame() {
+    GameImpl g = new GameImpl(GameDifficulty.EXPERT, 0, 0, 0, FirstClickMode.NO_GUESS);
+    g.setSeedSearch(NoGuessGenerator.within(Long.MAX_VALUE));
+    assertFalse(g.isGuessFree());
+    g.getCell(123).open(true);
+    assertTrue(g.isGuessFree());
+    Solver s = new Solver(g);
+    g.addListener(s);
+    while (g.getFinished() == 0) {
+      assertTrue(s.nextSafe() >= 0);
+      g.getCell(s.nextSafe()).open(true);
+    }
+    assertEquals(1, g.getFinished());
+  }
+
+  @Test
+  public void testSolverWinsEveryGame() {
+    Simulation sim = new Simulation(BoardId.parse("I-1"), 100);
+    sim.setPolicies(SolverMovePolicy::new);
+    sim.setFirstClickMode(FirstClickMode.NO_GUESS);
+    SimulationResult r = sim.run();
+    assertEquals(100, r.getWins());
+  }
+}
@@ -0,0 +1,170 @@
+package minesweeper.solver;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import minesweeper.game.BoardView;
+import minesweeper.game.Game;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.NeighbourTable;
+import minesweeper.game.PackedGameImpl;
+
+public class ProbabilityEngineTest {
+
+  /**
+   * Count the mine layouts over the closed Cells one at a time, to check the engine against
+   */
+  static double[] bruteForce(Game g) {
+    BoardView view = g.getBoardView();
+    NeighbourTable table = g.getNeighbourTable();
+    int size = view.width() * view.height();
+    List<Integer> closed = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      if (Solver.isClosed(view.state(i))) {
+        closed.add(i);
+      }
+    }
+    double[] mineCounts = new double[size];
+    double total = 0;
+    boolean[] mine = new boolean[size];
+    for (long layout = 0; layout < (1L << closed.size()); layout++) {
+      if (Long.bitCount(layout) != g.getNumMines()) {
+        continue;
+      }
+      for (int c = 0; c < closed.size(); c++) {
+        mine[closed.get(c)] = (layout & (1L << c)) != 0;
+      }
+      boolean fits = true;
+      for (int i = 0; i < size && fits; i++) {
+        if (ProbabilityEngine.isNumber(view, i)) {
+          int n = 0;
+          for (int k = table.start(i); k < table.end(i); k++) {
+            n += mine[table.get(k)] ? 1 : 0;
+          }
+          fits = n == view.number(i);
+        }
+      }
+      if (fits) {
+        total++;
+        for (int c : closed) {
+          mineCounts[c] += mine[c] ? 1 : 0;
+        }
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      mineCounts[i] /= total;
+    }
+    return mineCounts;
+  }
+
+  @Test
+  public void testAgainstBruteForce() {
+    Random r = new Random(3);
+    int checked = 0;
+    while (checked < 20) {
+      PackedGameImpl g = new PackedGameImpl(GameDifficulty.BEGINNER, 0, 0, 0, r.nextLong(),
+          Game.FirstClickMode.OPENING);
+      g.open(r.nextInt(81), true);
+      Solver s = new Solver(g);
+      g.addListener(s);
+      while (s.nextSafe() >= 0 && g.getFinished() == 0) {
+        g.open(s.nextSafe(), true);
+      }
+      // Few enough closed Cells to count every layout
+      double[] p = new ProbabilityEngine(g).compute();
+      int numClosed = 0;
+      for (int i = 0; i < 81; i++) {
+        numClosed += Solver.isClosed(g.getBoardView().state(i)) ? 1 : 0;
+      }
+      if (g.getFinished() != 0 || numClosed > 22) {
+        continue;
+      }
+      double[] expected = bruteForce(g);
+      for (int i = 0; i < 81; i++) {
+        assertEquals(expected[i], p[i], 1e-9);
+      }
+      checked++;
+    }
+  }
+
+  @Test
+  public void testCertainties() {
+    Random r = new Random(11);
+    for (int n = 0; n < 20; n++) {
+      PackedGameImpl g = new PackedGameImpl(GameDifficulty.EXPERT, 0, 0, 0, r.nextLong(),
+          Game.FirstClickMode.OPENING);
+      g.open(r.nextInt(480), true);
+      Solver s = new Solver(g);
+      double[] p = new ProbabilityEngine(g).compute();
+      double sum = 0;
+      for (int i = 0; i < 480; i++) {
+        sum += p[i];
+        if (s.isSafe(i)) {
+          assertEquals(0, p[i], 1e-9);
+        }
+        if (s.isMine(i)) {
+          assertEquals(1, p[i], 1e-9);
+        }
+      }
+      // Every mine is somewhere
+      assertEquals(99, sum, 1e-6);
+    }
+  }
+
+  @Test
+  public void testCaches() {
+    TranspositionCache<ProbabilityEngine.Key, double[]> results = new TranspositionCache<>(16);
+    TranspositionCache<Component.Key, Component> components = new TranspositionCache<>(256);
+    double[][] p = new double[3][];
+    for (int n = 0; n < 3; n++) {
+      // The same board each time
+      PackedGameImpl g = new PackedGameImpl(GameDifficulty.EXPERT, 0, 0, 0, 42,
+          Game.FirstClickMode.OPENING);
+      g.open(100, true);
+      ProbabilityEngine engine = new ProbabilityEngine(g);
+      engine.setComponentCache(components);
+      // Only the first two games keep whole results
+      engine.setResultCache((n < 2) ? results : null);
+      p[n] = engine.compute();
+    }
+    assertEquals(1, results.getHits());
+    assertEquals(1, results.getMisses());
+    // The third game found every Component cached
+    assertTrue(components.getHits() > 0);
+    assertEquals(components.getMisses(), components.getHits());
+    assertArrayEquals(p[0], p[1], 0);
+    assertArrayEquals(p[0], p[2], 0);
+
+    // Callers may change what they are given
+    p[1][0] = -1;
+    PackedGameImpl g = new PackedGameImpl(GameDifficulty.EXPERT, 0, 0, 0, 42,
+        Game.FirstClickMode.OPENING);
+    g.open(100, true);
+    ProbabilityEngine engine = new ProbabilityEngine(g);
+    engine.setResultCache(results);
+    assertEquals(p[0][0], engine.compute()[0], 0);
+  }
+
+  @Test
+  public void testResultCollision() {
+    PackedGameImpl g = new PackedGameImpl(GameDifficulty.BEGINNER, 0, 0, 0, 42,
+        Game.FirstClickMode.OPENING);
+    g.open(40, true);
+    // Another board whose state hash happens to match
+    TranspositionCache<ProbabilityEngine.Key, double[]> results = new TranspositionCache<>(16);
+    results.put(new ProbabilityEngine.Key(16, 16, g.getNumMines(), g.getStateHash()),
+        new double[16 * 16]);
+    results.put(new ProbabilityEngine.Key(9, 9, 11, g.getStateHash()), new double[9 * 9]);
+
+    ProbabilityEngine engine = new ProbabilityEngine(g);
+    engine.setResultCache(results);
+    double[] p = engine.compute();
+    assertEquals(0, results.getHits());
+    assertEquals(81, p.length);
+    ProbabilityEngine uncached = new ProbabilityEngine(g);
+    uncached.setResultCache(null);
+    assertArrayEquals(uncached.compute(), p, 0);
+  }
+}
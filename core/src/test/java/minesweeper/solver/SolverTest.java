@@ -0,0 +1,102 @@
+package minesweeper.solver;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import minesweeper.game.BoardView;
+import minesweeper.game.Game;
+import minesweeper.game.Game.GameDifficulty;
+import minesweeper.game.GameImpl;
+import minesweeper.game.PackedGameImpl;
+
+public class SolverTest {
+
+  /**
+   * @return a 9x9 layout with mines at (2, 0) and (4, 0) only
+   */
+  static List<List<Boolean>> twoMines() {
+    List<List<Boolean>> mines = new ArrayList<>();
+    for (int y = 0; y < 9; y++) {
+      List<Boolean> row = new ArrayList<>();
+      for (int x = 0; x < 9; x++) {
+        row.add(y == 0 && (x == 2 || x == 4));
+      }
+      mines.add(row);
+    }
+    return mines;
+  }
+
+  @Test
+  public void testSingleCellRule() {
+    Game g = new GameImpl();
+    g.createBoard(twoMines());
+    Solver s = new Solver(g);
+    g.addListener(s);
+    assertEquals(0, s.getFrontierSize());
+
+    // Opens everything but (2, 0), (3, 0) and (4, 0). The 1s beside them show where the mines
+    // are, which leaves the 2 at (3, 1) with none to spare
+    g.getCell(9 * 5).open(true);
+    assertEquals(3, s.getFrontierSize());
+    assertTrue(s.isMine(2));
+    assertTrue(s.isMine(4));
+    assertTrue(s.isSafe(3));
+    assertEquals(1, s.getSafeCount());
+    assertEquals(2, s.getMineCount());
+
+    // Opening a safe Cell takes it off the frontier
+    g.getCell(3).open(true);
+    assertFalse(s.isSafe(3));
+    assertEquals(2, s.getFrontierSize());
+    assertEquals(0, s.getSafeCount());
+  }
+
+  @Test
+  public void testPairRule() {
+    // Mines at (1, 0), (4, 0) and (7, 0) on a 9x9 board
+    List<List<Boolean>> mines = twoMines();
+    mines.get(0).set(2, false);
+    mines.get(0).set(1, true);
+    mines.get(0).set(7, true);
+    Game g = new PackedGameImpl();
+    g.createBoard(mines);
+    Solver s = new Solver(g);
+    g.addListener(s);
+
+    // Opens everything but the top row, under which every number is a 1. No single number
+    // decides anything, but the 1 at (0, 1) is a subset of the 1 at (1, 1)
+    g.getCell(9 * 5).open(true);
+    for (int x = 0; x < 9; x++) {
+      boolean mine = x == 1 || x == 4 || x == 7;
+      assertEquals(mine, s.isMine(x));
+      assertEquals(!mine, s.isSafe(x));
+    }
+  }
+
+  @Test
+  public void testDeductionsAreSound() {
+    Random r = new Random(7);
+    for (int n = 0; n < 200; n++) {
+      PackedGameImpl g = new PackedGameImpl(GameDifficulty.EXPERT, 0, 0, 0, r.nextLong(),
+          Game.FirstClickMode.OPENING);
+      Solver s = new Solver(g);
+      g.addListener(s);
+      g.open(r.nextInt(30 * 16), true);
+
+      // Play out every safe Cell, checking each step against a Solver built from scratch
+      while (g.getFinished() == 0 && s.nextSafe() >= 0) {
+        BoardView view = g.getBoardView();
+        s.forEachSafe(i -> assertFalse(view.isMine(i)));
+        s.forEachMine(i -> assertTrue(view.isMine(i)));
+        Solver fresh = new Solver(g);
+        assertEquals(fresh.safe, s.safe);
+        assertEquals(fresh.mines, s.mines);
+        assertEquals(fresh.frontier, s.frontier);
+        g.open(s.nextSafe(), true);
+      }
+      assertNotEquals(2, g.getFinished());
+    }
+  }
+}
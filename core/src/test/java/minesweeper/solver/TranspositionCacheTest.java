@@ -0,0 +1,53 @@
+package minesweeper.solver;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class TranspositionCacheTest {
+
+  @Test
+  public void testHitsAndMisses() {
+    TranspositionCache<Long, String> cache = new TranspositionCache<>(100);
+    assertNull(cache.get(1L));
+    cache.put(1L, "one");
+    assertEquals("one", cache.get(1L));
+    assertEquals("one", cache.get(1L));
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(2.0 / 3, cache.getHitRate(), 1e-9);
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getHits());
+    assertNull(cache.get(1L));
+  }
+
+  @Test
+  public void testBounded() {
+    TranspositionCache<Integer, Integer> cache = new TranspositionCache<>(50);
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, i);
+    }
+    assertTrue(cache.size() <= 50);
+    assertEquals(1000 - cache.size(), cache.getEvictions());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEvicted() {
+    // 16 segments of 2. Multiples of 16 all share the first segment
+    TranspositionCache<Integer, Integer> cache = new TranspositionCache<>(32);
+    cache.put(0, 0);
+    cache.put(16, 16);
+    cache.get(0);
+    cache.put(32, 32);
+    assertEquals(Integer.valueOf(0), cache.get(0));
+    assertNull(cache.get(16));
+    assertEquals(Integer.valueOf(32), cache.get(32));
+    assertEquals(1, cache.getEvictions());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoCapacity() {
+    new TranspositionCache<>(0);
+  }
+}
@@ -44,7 +44,8 @@ public interface Persistence {
    * </ul>
    * 
    * The times default values should have an entry for each of Game.GameDifficulty.{BEGINNER,
-   * INTERMEDIATE, EXPERT}, each with time as 999 and name as "Anonymous"
+   * INTERMEDIATE, EXPERT}, each with time as 999 seconds and name as "Anonymous". Times are stored
+   * in milliseconds.
    * 
    * 
    * @return true iff the database was successfully initialised, false otherwise
@@ -59,7 +60,8 @@ public interface Persistence {
   public boolean saveDB();
 
   /**
-   * Read settings and times from the database file
+   * Read settings and times from the database file. Databases written before times were kept in
+   * milliseconds are upgraded.
    * 
    * @return true iff the database was successfully read, false otherwise
    */
@@ -100,12 +102,16 @@ public interface Persistence {
    * Set the time and name as best time for a given difficulty
    * 
    * @param difficulty the difficulty at which the best time was achieved
-   * @param time the time in seconds it took to finish the game
+   * @param time the time in milliseconds it took to finish the game
    * @param name the name/associated label with the best time
    */
-  public void setBestTime(GameDifficulty difficulty, int time, String name);
+  public void setBestTime(GameDifficulty difficulty, long time, String name);
 
-  public Map<GameDifficulty, Integer> getBestTimes();
+  /**
+   * 
+   * @return the best time for each difficulty, in milliseconds
+   */
+  public Map<GameDifficulty, Long> getBestTimes();
 
   public Map<GameDifficulty, String> getBestNames();
 
@@ -25,11 +25,12 @@ public class SqlitePersistence implements Persistence {
   int x, y, mines;
 
   // Times
-  Map<GameDifficulty, Integer> bestTimes;
+  // In milliseconds
+  Map<GameDifficulty, Long> bestTimes;
   Map<GameDifficulty, String> bestNames;
 
   // Some constants
-  final static int defaultTime = MAX_SECONDS;
+  final static long defaultTime = MAX_SECONDS * 1000L;
   final static String defaultName = "Anonymous";
   final static String settingsTable = "SETTINGS";
   final static String timesTable = "TIMES";
@@ -99,7 +100,8 @@ public class SqlitePersistence implements Persistence {
 
       // Create times table
       stmt.executeUpdate("DROP TABLE IF EXISTS TIMES");
-      stmt.executeUpdate("CREATE TABLE TIMES (DIFFICULTY TEXT, TIME INTEGER, NAME TEXT)");
+      stmt.executeUpdate(
+          "CREATE TABLE TIMES (DIFFICULTY TEXT, TIME INTEGER, NAME TEXT, TIME_MS INTEGER)");
 
     } catch (SQLException e) {
       e.printStackTrace();
@@ -141,7 +143,8 @@ public class SqlitePersistence implements Persistence {
       pstmt.executeUpdate();
 
       // Write in values
-      template = "INSERT INTO TIMES (DIFFICULTY, TIME, NAME) values (?,?,?)";
+      // TIME keeps whole seconds for older versions
+      template = "INSERT INTO TIMES (DIFFICULTY, TIME, NAME, TIME_MS) values (?,?,?,?)";
       pstmt = connection.prepareStatement(template);
 
       // each best time saved
@@ -151,8 +154,9 @@ public class SqlitePersistence implements Persistence {
 
         final String difficulty = gd.toString();
         pstmt.setString(1, difficulty);
-        pstmt.setInt(2, bestTimes.get(gd));
+        pstmt.setLong(2, bestTimes.get(gd) / 1000);
         pstmt.setString(3, bestNames.get(gd));
+        pstmt.setLong(4, bestTimes.get(gd));
         pstmt.executeUpdate();
       }
 
@@ -169,6 +173,7 @@ public class SqlitePersistence implements Persistence {
 
     try (Connection connection = DriverManager.getConnection(dbURL)) {
       stmt = connection.createStatement();
+      migrateTimes(connection);
 
       // Read settings
       rs = stmt.executeQuery("SELECT DIFFICULTY, X, Y, MINES, MARKS, COLOUR, SOUND FROM SETTINGS");
@@ -184,11 +189,11 @@ public class SqlitePersistence implements Persistence {
       }
 
       // Read times
-      rs = stmt.executeQuery("SELECT DIFFICULTY, TIME, NAME FROM TIMES");
+      rs = stmt.executeQuery("SELECT DIFFICULTY, TIME_MS, NAME FROM TIMES");
 
       while (rs.next()) {
         GameDifficulty difficulty = GameDifficulty.valueOf(rs.getString(1));
-        bestTimes.put(difficulty, rs.getInt(2));
+        bestTimes.put(difficulty, rs.getLong(2));
         bestNames.put(difficulty, rs.getString(3));
       }
 
@@ -200,6 +205,23 @@ public class SqlitePersistence implements Persistence {
   }
 
 
+  /**
+   * Older databases only have whole seconds in TIMES. Add the TIME_MS column, filled in from them.
+   */
+  private void migrateTimes(Connection connection) throws SQLException {
+    boolean hasMillis = false;
+    rs = stmt.executeQuery("PRAGMA table_info(TIMES)");
+    while (rs.next()) {
+      if ("TIME_MS".equalsIgnoreCase(rs.getString("name"))) {
+        hasMillis = true;
+      }
+    }
+    if (!hasMillis) {
+      stmt.executeUpdate("ALTER TABLE TIMES ADD COLUMN TIME_MS INTEGER");
+      stmt.executeUpdate("UPDATE TIMES SET TIME_MS = TIME * 1000");
+    }
+  }
+
   // GETTERS AND SETTERS
 
   @Override
@@ -261,7 +283,7 @@ public class SqlitePersistence implements Persistence {
   }
 
   @Override
-  public void setBestTime(GameDifficulty difficulty, int time, String name) {
+  public void setBestTime(GameDifficulty difficulty, long time, String name) {
     if (time < bestTimes.get(difficulty)) {
       bestTimes.put(difficulty, time);
       bestNames.put(difficulty, name);
@@ -269,7 +291,7 @@ public class SqlitePersistence implements Persistence {
   }
 
   @Override
-  public Map<GameDifficulty, Integer> getBestTimes() {
+  public Map<GameDifficulty, Long> getBestTimes() {
     return new HashMap<>(bestTimes);
   }
 
@@ -34,14 +34,22 @@ import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import javafx.embed.swing.JFXPanel;
+import minesweeper.game.BoardId;
+import minesweeper.game.BoardPool;
 import minesweeper.game.Game;
+import minesweeper.game.Game.FirstClickMode;
 import minesweeper.game.Game.GameDifficulty;
-import minesweeper.game.GameImpl;
+import minesweeper.game.PackedGameImpl;
+import minesweeper.game.SeedSearch;
 import minesweeper.gameio.GameIO;
 import minesweeper.gameio.GameReaderWriter;
 import minesweeper.gamelistener.GamePanel;
 import minesweeper.persistence.Persistence;
 import minesweeper.persistence.SqlitePersistence;
+import minesweeper.simulation.WinEstimator;
+import minesweeper.solver.Hint;
+import minesweeper.solver.Hinter;
+import minesweeper.solver.NoGuessGenerator;
 import minesweeper.util.Global;
 
 /**
@@ -54,6 +62,12 @@ import minesweeper.util.Global;
  *
  */
 public class Minesweeper {
+  // New games kept ready for each kind of board
+  static final int BOARD_POOL_SIZE = 3;
+  // Searches for NO_GUESS boards, falling back to an OPENING board if it takes too long
+  static final SeedSearch NO_GUESS_SEARCH =
+      NoGuessGenerator.within(NoGuessGenerator.TIMEOUT_MILLIS);
+
   /**
    * Used for timing information.
    * 
@@ -61,7 +75,8 @@ public class Minesweeper {
    * @see Minesweeper.Minesweeper(Game game)
    */
   private static class Ticker extends TimerTask {
-    Game game;
+    // Set on the event dispatch thread, read on the Timer's thread
+    volatile Game game;
 
     public Ticker() {
       ;
@@ -77,7 +92,10 @@ public class Minesweeper {
     }
 
     public void run() {
-      game.tick();
+      Game g = game;
+      if (g != null) {
+        g.tick();
+      }
     }
   }
 
@@ -88,12 +106,20 @@ public class Minesweeper {
   // UI elements
   JFrame frame;
   JCheckBoxMenuItem markingMenuItem;
+  JCheckBoxMenuItem openingMenuItem;
+  JCheckBoxMenuItem noGuessMenuItem;
   JCheckBoxMenuItem colourMenuItem;
   JCheckBoxMenuItem soundMenuItem;
+  JCheckBoxMenuItem winChanceMenuItem;
 
   // Game stuff
   Game game;
   GamePanel gamePanel;
+  // New games, built ahead of time off the event thread
+  BoardPool boardPool;
+  Hinter hinter;
+  // Chance of winning from here, shown in the title while Win Chance is on
+  WinEstimator estimator;
 
   // Timing stuff
   Timer timer;
@@ -138,9 +164,14 @@ public class Minesweeper {
 
     this.gio = gio;
 
-    // Ticker that ticks every second
+    // Ticker that refreshes the time shown. The time itself comes from the Game's clock
     timer = new Timer();
     ticker = new Ticker();
+    boardPool = new BoardPool(BOARD_POOL_SIZE);
+    boardPool.setSeedSearch(NO_GUESS_SEARCH);
+    estimator = new WinEstimator(estimate -> frame.setTitle(
+        String.format("Minesweeper - %.0f%% to win", 100 * estimate.getProbability())));
+    estimator.setCallbackExecutor(SwingUtilities::invokeLater);
 
     frame = new JFrame("Minesweeper");
     frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -154,12 +185,14 @@ public class Minesweeper {
       public void windowClosing(WindowEvent we) {
         System.out.println("Saving db!");
         persistence.saveDB();
+        boardPool.close();
+        estimator.close();
       }
     });
 
     resetGame();
     resetGame(); // quick fix for the UI resizing. force resize (shrink) upon start.
-    timer.scheduleAtFixedRate(ticker, 0, 1000);
+    timer.scheduleAtFixedRate(ticker, 0, 100);
   }
 
   private JMenuItem createJMenuItem(String name, int mnemonic, String desc) {
@@ -197,6 +230,16 @@ public class Minesweeper {
     });
     menu.add(menuItem);
 
+    // File -> Hint : Outline a Cell to open next, and the numbers that show why
+    menuItem = createJMenuItem("Hint", KeyEvent.VK_H, "Suggest a Cell to open next",
+        KeyStroke.getKeyStroke(KeyEvent.VK_H, ActionEvent.CTRL_MASK));
+    menuItem.addActionListener(new ActionListener() {
+      public void actionPerformed(ActionEvent e) {
+        hint();
+      }
+    });
+    menu.add(menuItem);
+
     menu.addSeparator();
     menuItem = createJMenuItem("Open...", KeyEvent.VK_O, "Open a game from file",
         KeyStroke.getKeyStroke(KeyEvent.VK_O, ActionEvent.CTRL_MASK));
@@ -217,6 +260,16 @@ public class Minesweeper {
     });
     menu.add(menuItem);
 
+    // File -> Board ID... : Show the current board's ID, or play another board by its ID
+    menuItem = createJMenuItem("Board ID...", KeyEvent.VK_D, "Share or replay a board by its ID",
+        KeyStroke.getKeyStroke(KeyEvent.VK_B, ActionEvent.CTRL_MASK));
+    menuItem.addActionListener(new ActionListener() {
+      public void actionPerformed(ActionEvent e) {
+        enterBoardId();
+      }
+    });
+    menu.add(menuItem);
+
     menu.addSeparator();
     ButtonGroup difficultyRadioGroup = new ButtonGroup();
 
@@ -319,14 +372,33 @@ public class Minesweeper {
     markingMenuItem.setMnemonic(KeyEvent.VK_M);
     markingMenuItem.addActionListener(new ActionListener() {
       public void actionPerformed(ActionEvent ae) {
-        game.getCells().stream()
-            .forEach(r -> r.stream().forEach(c -> c.setMarking(markingMenuItem.isSelected())));
+        game.setMarking(markingMenuItem.isSelected());
         persistence.setMarks(markingMenuItem.isSelected());
       }
     });
     markingMenuItem.setSelected(persistence.getMarks());
     menu.add(markingMenuItem);
 
+    // File -> Safe Opening : Place mines after the first click, clear of it and its neighbours
+    openingMenuItem = new JCheckBoxMenuItem("Safe Opening");
+    openingMenuItem.setMnemonic(KeyEvent.VK_P);
+    openingMenuItem.addActionListener(new ActionListener() {
+      public void actionPerformed(ActionEvent ae) {
+        resetGame();
+      }
+    });
+    menu.add(openingMenuItem);
+
+    // File -> No Guessing : As Safe Opening, on boards that can be won without guessing
+    noGuessMenuItem = new JCheckBoxMenuItem("No Guessing");
+    noGuessMenuItem.setMnemonic(KeyEvent.VK_N);
+    noGuessMenuItem.addActionListener(new ActionListener() {
+      public void actionPerformed(ActionEvent ae) {
+        resetGame();
+      }
+    });
+    menu.add(noGuessMenuItem);
+
     // File -> Colour : Toggle colour
     colourMenuItem = new JCheckBoxMenuItem("Colour");
     colourMenuItem.setMnemonic(KeyEvent.VK_L);
@@ -350,6 +422,17 @@ public class Minesweeper {
     soundMenuItem.setSelected(persistence.getColour());
     menu.add(soundMenuItem);
 
+    // File -> Win Chance : Show the chance of winning from here in the title, updated as you play
+    winChanceMenuItem = new JCheckBoxMenuItem("Win Chance");
+    winChanceMenuItem.setMnemonic(KeyEvent.VK_W);
+    winChanceMenuItem.addActionListener(new ActionListener() {
+      public void actionPerformed(ActionEvent ae) {
+        frame.setTitle("Minesweeper");
+        estimator.watch(winChanceMenuItem.isSelected() ? game : null);
+      }
+    });
+    menu.add(winChanceMenuItem);
+
     menu.addSeparator();
 
     // File -> Best Times... : Shows best times
@@ -397,6 +480,16 @@ public class Minesweeper {
    * Handles all the frame sizing
    */
   public void resetGame() {
+    resetGame(null);
+  }
+
+  /**
+   * Start a new game on the board described by <code>boardId</code>, or on a new random board with
+   * the currently-saved settings if it is <code>null</code>
+   * 
+   * @param boardId the board to play, or <code>null</code>
+   */
+  void resetGame(BoardId boardId) {
     System.out.println("RESET!");
     try {
       frame.remove(gamePanel);
@@ -404,10 +497,29 @@ public class Minesweeper {
       System.out.println("Can't remove gamePanel");
     }
 
-    game = new GameImpl(persistence.getLastDifficulty(), persistence.getLastX(),
-        persistence.getLastY(), persistence.getLastMines());
+    FirstClickMode firstClickMode = FirstClickMode.CLASSIC;
+    if (noGuessMenuItem.isSelected()) {
+      firstClickMode = FirstClickMode.NO_GUESS;
+    } else if (openingMenuItem.isSelected()) {
+      firstClickMode = FirstClickMode.OPENING;
+    }
+    if (boardId == null) {
+      game = boardPool.take(persistence.getLastDifficulty(), persistence.getLastX(),
+          persistence.getLastY(), persistence.getLastMines(), firstClickMode);
+    } else {
+      PackedGameImpl replay = new PackedGameImpl(boardId, firstClickMode);
+      replay.setSeedSearch(NO_GUESS_SEARCH);
+      game = replay;
+    }
+    game.setListenerExecutor(SwingUtilities::invokeLater);
     gamePanel = new GamePanel(game, this);
     game.addListener(gamePanel);
+    hinter = new Hinter(game);
+    game.addListener(hinter);
+    frame.setTitle("Minesweeper");
+    if (winChanceMenuItem.isSelected()) {
+      estimator.watch(game);
+    }
 
     ticker.connect(game);
     frame.add(gamePanel, BorderLayout.CENTER);
@@ -454,6 +566,34 @@ public class Minesweeper {
     }
   }
 
+  // File -> Hint (Ctrl-H)
+  private void hint() {
+    Hint hint = hinter.next();
+    if (hint != null) {
+      gamePanel.showHint(hint);
+    }
+  }
+
+  // File -> Board ID... (Ctrl-B)
+  private void enterBoardId() {
+    BoardId current = game.getBoardId();
+    String prompt = "Share this board's ID, or enter another ID to play that board.";
+    String s = (String) JOptionPane.showInputDialog(frame, prompt, "Board ID",
+        JOptionPane.PLAIN_MESSAGE, null, null, (current == null) ? "" : current.toString());
+    if (s == null || s.trim().isEmpty() || (current != null && s.equals(current.toString()))) {
+      return;
+    }
+
+    try {
+      BoardId boardId = BoardId.parse(s);
+      persistence.setLastDifficulty(boardId.getDifficulty(), boardId.getWidth(),
+          boardId.getHeight(), boardId.getNumMines());
+      resetGame(boardId);
+    } catch (IllegalArgumentException ex) {
+      JOptionPane.showMessageDialog(frame, ex.getMessage(), "Board ID", JOptionPane.ERROR_MESSAGE);
+    }
+  }
+
   /**
    * The text is to be used in a JLabel's text field, so to display new lines, requires use of HTML
    * tags with <code><br></code> to emulate new lines.
@@ -461,7 +601,7 @@ public class Minesweeper {
    * @return a HTML string representing the best scores as above.
    */
   private String getBestTimesText() {
-    Map<GameDifficulty, Integer> bestTimes = persistence.getBestTimes();
+    Map<GameDifficulty, Long> bestTimes = persistence.getBestTimes();
     Map<GameDifficulty, String> bestNames = persistence.getBestNames();
 
     StringBuilder sb = new StringBuilder();
@@ -471,7 +611,7 @@ public class Minesweeper {
         String difficultyStr =
             gd.toString().substring(0, 1).toUpperCase() + gd.toString().substring(1).toLowerCase();
         sb.append("<tr><td>" + difficultyStr + ":</td>");
-        sb.append("<td>" + bestTimes.get(gd) + " seconds</td>");
+        sb.append("<td>" + String.format("%.3f", bestTimes.get(gd) / 1000.0) + " seconds</td>");
         sb.append("<td>" + bestNames.get(gd) + "</td></tr>");
       }
     }
@@ -501,6 +641,13 @@ public class Minesweeper {
         JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
   }
 
+  /**
+   * Tell the player that the NO_GUESS search gave up, so this board may need a guess
+   */
+  public void noGuessFallback() {
+    frame.setTitle("Minesweeper - no guess-free board found in time");
+  }
+
   /**
    * Check whether the time taken and difficulty of the current game is the fastest for its
    * difficulty. If so, prompt for the user to enter a name and record the score. Then display the
@@ -516,7 +663,7 @@ public class Minesweeper {
     }
 
     GameDifficulty difficulty = game.getDifficulty();
-    int time = game.getSecondsPassed();
+    long time = game.getElapsedMillis();
     if (difficulty == GameDifficulty.CUSTOM || time >= persistence.getBestTimes().get(difficulty)) {
       System.out.println("CheckBestTime: diff or time");
       return;
@@ -1,11 +1,15 @@
 package minesweeper.celllistener;
 
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Insets;
 import java.awt.event.MouseEvent;
-import java.util.Set;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
+import javax.swing.border.LineBorder;
 import javax.swing.event.MouseInputAdapter;
 import minesweeper.cell.Cell;
+import minesweeper.cell.CellListener;
 import minesweeper.util.Global;
 
 public class CellIcon extends JLabel implements CellListener {
@@ -31,14 +35,7 @@ public class CellIcon extends JLabel implements CellListener {
      * should be indirect
      */
     private void chord() {
-      if (CellIcon.this.cell.isOpen()) {
-        Set<Cell> neighbours = CellIcon.this.cell.getGame().getNeighboursOf(CellIcon.this.cell);
-        int neighbouringFlags =
-            (int) neighbours.stream().filter(c -> c.getFlagState() == 1).count();
-        if (neighbouringFlags == CellIcon.this.cell.getNumber()) {
-          neighbours.stream().forEach(c -> c.open(false));
-        }
-      }
+      CellIcon.this.cell.getGame().chord(CellIcon.this.cell);
     }
 
     @Override
@@ -209,10 +206,13 @@ public class CellIcon extends JLabel implements CellListener {
     validateAndRepaint();
   }
 
+  /**
+   * The icon does not listen to <code>cell</code> itself. Its GamePanel calls
+   * <code>cellChanged()</code> once per user action, for the Cells that changed.
+   */
   public CellIcon(Cell cell) {
     this();
     this.cell = cell;
-    cell.addListener(this);
     validateAndRepaint();
   }
 
@@ -221,6 +221,25 @@ public class CellIcon extends JLabel implements CellListener {
     repaint();
   }
 
+  /**
+   * Outline the icon, e.g. to show a hint. The outline covers the icon's edge rather than taking
+   * space, so the board does not move.
+   *
+   * @param colour the outline's colour, or <code>null</code> to remove it
+   */
+  public void setHighlight(Color colour) {
+    setBorder((colour == null) ? null : new LineBorder(colour, 2) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public Insets getBorderInsets(Component c, Insets insets) {
+        insets.set(0, 0, 0, 0);
+        return insets;
+      }
+    });
+    validateAndRepaint();
+  }
+
   private void resetImageToCellState() {
     this.setIcon(
         new ImageIcon(Global.IMAGE_PATH + cell.getCellState().toString().toLowerCase() + ".png"));
@@ -233,8 +252,6 @@ public class CellIcon extends JLabel implements CellListener {
 
     // System.err.println(cell.getPoint() + " to " + getIcon().toString());
 
-    cell.getGame().setFinished();
-
     validateAndRepaint();
   }
 
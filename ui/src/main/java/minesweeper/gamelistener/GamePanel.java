@@ -1,5 +1,6 @@
 package minesweeper.gamelistener;
 
+import static minesweeper.util.MinesweeperConstants.*;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -9,7 +10,7 @@ import java.awt.Point;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.io.File;
-import java.util.Collection;
+import java.util.Arrays;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
@@ -20,8 +21,14 @@ import javax.swing.event.MouseInputAdapter;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import minesweeper.Minesweeper;
+import minesweeper.cell.Cell.CellState;
 import minesweeper.celllistener.CellIcon;
+import minesweeper.game.BoardView;
+import minesweeper.game.ChangeSet;
 import minesweeper.game.Game;
+import minesweeper.game.Game.FirstClickMode;
+import minesweeper.game.GameListener;
+import minesweeper.solver.Hint;
 import minesweeper.util.Global;
 import minesweeper.util.ThickBevelBorder;
 
@@ -38,6 +45,12 @@ public class GamePanel extends JPanel implements GameListener {
   Minesweeper minesweeper;
   Game game;
   GamePanelMouseListener l;
+  // One per Cell, indexed the same way as the Game's Cells
+  CellIcon[] cellIcons;
+  // The Cells outlined by the last hint, until the board next changes
+  int[] highlighted;
+  // Whether the first click has been seen yet
+  boolean started;
 
   JPanel numMinePanel;
   JLabel[] numMineLabels;
@@ -257,9 +270,11 @@ public class GamePanel extends JPanel implements GameListener {
     int yButtons = (int) p.getY();
 
     JPanel cellField = new JPanel(new GridLayout(0, xButtons, 0, 0));
+    cellIcons = new CellIcon[xButtons * yButtons];
     for (int i = 0; i < yButtons; i++) {
       for (int j = 0; j < xButtons; j++) {
-        JLabel a = new CellIcon(game.getCells().get(i).get(j));
+        CellIcon a = new CellIcon(game.getCell(i * xButtons + j));
+        cellIcons[i * xButtons + j] = a;
         cellField.add(a);
       }
     }
@@ -298,15 +313,28 @@ public class GamePanel extends JPanel implements GameListener {
     face.setIcon(new ImageIcon(Global.IMAGE_PATH + "face-win.png"));
 
     // Flag all non-flagged mines
-    game.getCells().stream().flatMap(Collection::stream)
-        .filter(c -> c.isMine() && (c.getFlagState() != 1)).forEach(c -> c.setFlag());
+    game.beginChanges();
+    try {
+      BoardView view = game.getBoardView();
+      view.forEachMine(i -> {
+        if (view.state(i) != CellState.FLAG1) {
+          game.getCell(i).setFlag();
+        }
+      });
+    } finally {
+      game.endChanges();
+    }
 
     minesweeper.checkBestTime();
   }
 
   @Override
   public void gameTick() {
-    String s = String.format("%03d", game.getSecondsPassed());
+    int seconds = game.getSecondsPassed();
+    if (seconds > MAX_SECONDS) {
+      return;
+    }
+    String s = String.format("%03d", seconds);
     if (minesweeper.persistence.getSound()) {
       playSound(Global.SOUND_PATH + "tick.mp3");
     }
@@ -325,6 +353,42 @@ public class GamePanel extends JPanel implements GameListener {
     }
   }
 
+  @Override
+  public void cellsChanged(ChangeSet changes) {
+    clearHint();
+    changes.forEach(i -> cellIcons[i].cellChanged());
+    if (!started && game.isStarted()) {
+      started = true;
+      if (game.getFirstClickMode() == FirstClickMode.NO_GUESS && !game.isGuessFree()) {
+        minesweeper.noGuessFallback();
+      }
+    }
+  }
+
+  /**
+   * Outline the hinted Cell (green if it is safe, orange if it is a guess) and the numbers behind
+   * it (blue)
+   */
+  public void showHint(Hint hint) {
+    clearHint();
+    int[] reasons = hint.getReasons();
+    highlighted = Arrays.copyOf(reasons, reasons.length + 1);
+    highlighted[reasons.length] = hint.getIndex();
+    for (int i : reasons) {
+      cellIcons[i].setHighlight(Color.BLUE);
+    }
+    cellIcons[hint.getIndex()].setHighlight(hint.isSafe() ? Color.GREEN : Color.ORANGE);
+  }
+
+  void clearHint() {
+    if (highlighted != null) {
+      for (int i : highlighted) {
+        cellIcons[i].setHighlight(null);
+      }
+      highlighted = null;
+    }
+  }
+
   @Override
   public void paintComponent(Graphics g) {
     g.setColor(new Color(192, 192, 192));